@@ -0,0 +1,49 @@
+package com.sonifoy.user.application.service;
+
+import com.sonifoy.user.domain.model.User;
+import com.sonifoy.user.infrastructure.adapter.out.persistence.UserEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserServiceBenchmark {
+
+    private UserService userService;
+    private UserEntity entity;
+
+    @Setup
+    public void setUp() {
+        // mapToDomain touches none of the collaborators
+        userService = new UserService(null, null, null, null, null, null);
+        entity = UserEntity.builder()
+                .id(42L)
+                .email("user42@example.com")
+                .name("Benchmark User")
+                .password("$2a$10$abcdefghijklmnopqrstuv")
+                .avatarUrl("https://i.pravatar.cc/150?u=user42@example.com")
+                .roles(Set.of("USER", "ARTISTA"))
+                .city("Medellín")
+                .country("Colombia")
+                .profileType("FREE")
+                .verified(true)
+                .createdAt(Instant.now())
+                .updatedAt(Instant.now())
+                .build();
+    }
+
+    @Benchmark
+    public User mapToDomain() {
+        return userService.mapToDomain(entity);
+    }
+}
@@ -0,0 +1,66 @@
+package com.sonifoy.user.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "default_military_grade_secret_key_must_be_minimum_256_bits_long";
+
+    private JwtService jwtService;
+    private Key key;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "cacheMaxSize", 10_000L);
+        jwtService.init();
+
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        token = Jwts.builder()
+                .setSubject("user@example.com")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(key)
+                .compact();
+    }
+
+    /**
+     * Repeat token: served from the verified-token cache.
+     */
+    @Benchmark
+    public Claims validateToken() {
+        return jwtService.validateToken(token);
+    }
+
+    /**
+     * One full parse and HMAC verification with a freshly built parser, the cost
+     * of a cache miss before the parser was shared.
+     */
+    @Benchmark
+    public Claims parseAndVerify() {
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
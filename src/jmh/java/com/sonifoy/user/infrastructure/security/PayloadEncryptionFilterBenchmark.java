@@ -0,0 +1,117 @@
+package com.sonifoy.user.infrastructure.security;
+
+import com.sonifoy.user.infrastructure.metrics.PipelineMetrics;
+import com.sonifoy.user.infrastructure.security.crypto.CryptoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full filter round trips over mock exchanges: a GET whose JSON response is
+ * encrypted, and a POST whose encrypted body is decrypted and echoed back encrypted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PayloadEncryptionFilterBenchmark {
+
+    private static final String SESSION_ID = "benchmark-session";
+
+    @Param({ "256", "4096", "65536" })
+    private int payloadSize;
+
+    private PayloadEncryptionFilter filter;
+    private byte[] json;
+    private String encryptedJson;
+    private WebFilterChain respondWithJson;
+    private WebFilterChain echoBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        CryptoService cryptoService = new CryptoService();
+        byte[] key = cryptoService.deriveKey(SESSION_ID);
+        SessionKeyStore keyStore = new SessionKeyStore() {
+            @Override
+            public Mono<Void> saveKey(String sessionId, byte[] sessionKey) {
+                return Mono.empty();
+            }
+
+            @Override
+            public Mono<Void> indexSession(String sessionId, String userId) {
+                return Mono.empty();
+            }
+
+            @Override
+            public Mono<byte[]> getKey(String sessionId) {
+                return Mono.just(key);
+            }
+
+            @Override
+            public Mono<Void> removeKey(String sessionId) {
+                return Mono.empty();
+            }
+
+            @Override
+            public Mono<List<String>> removeAllForUser(String userId) {
+                return Mono.just(List.of());
+            }
+        };
+        filter = new PayloadEncryptionFilter(cryptoService, keyStore,
+                new PipelineMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(filter, "maxBodySize", 10 * 1024 * 1024);
+
+        StringBuilder body = new StringBuilder("{\"data\":\"");
+        while (body.length() < payloadSize - 2) {
+            body.append('x');
+        }
+        json = body.append("\"}").toString().getBytes(StandardCharsets.UTF_8);
+        encryptedJson = cryptoService.encrypt(new String(json, StandardCharsets.UTF_8), key);
+
+        respondWithJson = exchange -> {
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return exchange.getResponse()
+                    .writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(json)));
+        };
+        echoBody = exchange -> DataBufferUtils.join(exchange.getRequest().getBody())
+                .flatMap(buffer -> {
+                    exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    return exchange.getResponse().writeWith(Mono.just(buffer));
+                });
+    }
+
+    @Benchmark
+    public String encryptResponse() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/api/v1/users/profile").header("X-Session-ID", SESSION_ID));
+        filter.filter(exchange, respondWithJson).block();
+        return exchange.getResponse().getBodyAsString().block();
+    }
+
+    @Benchmark
+    public String decryptRequestAndEncryptResponse() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.put("/api/v1/users/profile")
+                        .header("X-Session-ID", SESSION_ID)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .body(encryptedJson));
+        filter.filter(exchange, echoBody).block();
+        return exchange.getResponse().getBodyAsString().block();
+    }
+}
@@ -0,0 +1,62 @@
+package com.sonifoy.user.infrastructure.security.crypto;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CryptoServiceBenchmark {
+
+    @Param({ "256", "4096", "65536" })
+    private int payloadSize;
+
+    private CryptoService cryptoService;
+    private byte[] key;
+    private String plainText;
+    private byte[] plainBytes;
+    private String encryptedText;
+    private byte[] sealed;
+
+    @Setup
+    public void setUp() throws Exception {
+        cryptoService = new CryptoService();
+        key = cryptoService.deriveKey("benchmark-session");
+        char[] chars = new char[payloadSize];
+        Arrays.fill(chars, 'x');
+        plainText = new String(chars);
+        plainBytes = plainText.getBytes(StandardCharsets.UTF_8);
+        encryptedText = cryptoService.encrypt(plainText, key);
+        sealed = cryptoService.encrypt(plainBytes, key);
+    }
+
+    @Benchmark
+    public String encryptText() {
+        return cryptoService.encrypt(plainText, key);
+    }
+
+    @Benchmark
+    public String decryptText() {
+        return cryptoService.decrypt(encryptedText, key);
+    }
+
+    @Benchmark
+    public byte[] encryptBytes() {
+        return cryptoService.encrypt(plainBytes, key);
+    }
+
+    @Benchmark
+    public byte[] decryptBytes() {
+        return cryptoService.decrypt(sealed, key);
+    }
+}
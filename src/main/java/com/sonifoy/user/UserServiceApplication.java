@@ -2,12 +2,18 @@ package com.sonifoy.user;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class UserServiceApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(UserServiceApplication.class, args);
+        SpringApplication application = new SpringApplication(UserServiceApplication.class);
+        // Keeps startup steps around for the startup report
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
 
 }
@@ -0,0 +1,107 @@
+package com.sonifoy.user.application.service;
+
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BatchableStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.sonifoy.user.domain.model.DailyActivityCount;
+import com.sonifoy.user.infrastructure.adapter.out.persistence.ActivityDailyCountRepository;
+import com.sonifoy.user.infrastructure.adapter.out.persistence.ActivityUserCount;
+import com.sonifoy.user.infrastructure.adapter.out.persistence.ActivityUserCountRepository;
+import com.sonifoy.user.infrastructure.adapter.out.persistence.UserActivityLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Activity totals kept in Cassandra counter tables next to the log, so
+ * "per type per day" and "per user per type" questions read a handful of rows
+ * instead of scanning the log.
+ */
+@Service
+@RequiredArgsConstructor
+public class ActivityCounterService {
+
+    private static final String INCREMENT_DAILY =
+            "UPDATE activity_counts_by_day SET total = total + ? WHERE activity_type = ? AND day = ?";
+    private static final String INCREMENT_USER =
+            "UPDATE activity_counts_by_user SET total = total + ? WHERE user_id = ? AND activity_type = ?";
+
+    private final ActivityDailyCountRepository dailyCountRepository;
+    private final ActivityUserCountRepository userCountRepository;
+    private final ReactiveCassandraOperations cassandraOperations;
+
+    @Value("${activity-log.counters.max-range-days:366}")
+    private int maxRangeDays;
+
+    @Value("${activity-log.counters.concurrency:16}")
+    private int concurrency;
+
+    /**
+     * Adds the logs to both counter tables. Increments are summed per counter row
+     * first, then grouped by partition: each partition gets one COUNTER batch (or a
+     * single update), so no batch spans partitions.
+     */
+    public Mono<Void> increment(Collection<UserActivityLog> logs) {
+        Map<DailyKey, Long> daily = new HashMap<>();
+        Map<UserKey, Long> perUser = new HashMap<>();
+        for (UserActivityLog activityLog : logs) {
+            if (activityLog.getActivityType() == null || activityLog.getTimestamp() == null) {
+                continue;
+            }
+            LocalDate day = LocalDate.ofInstant(activityLog.getTimestamp(), ZoneOffset.UTC);
+            daily.merge(new DailyKey(activityLog.getActivityType(), day), 1L, Long::sum);
+            perUser.merge(new UserKey(activityLog.getUserId(), activityLog.getActivityType()), 1L, Long::sum);
+        }
+        if (daily.isEmpty()) {
+            return Mono.empty();
+        }
+
+        Map<String, List<BatchableStatement<?>>> byPartition = new HashMap<>();
+        daily.forEach((key, delta) -> byPartition
+                .computeIfAbsent("day:" + key.activityType(), partition -> new ArrayList<>())
+                .add(SimpleStatement.newInstance(INCREMENT_DAILY, delta, key.activityType(), key.day())));
+        perUser.forEach((key, delta) -> byPartition
+                .computeIfAbsent("user:" + key.userId(), partition -> new ArrayList<>())
+                .add(SimpleStatement.newInstance(INCREMENT_USER, delta, key.userId(), key.activityType())));
+        return Flux.fromIterable(byPartition.values())
+                .flatMap(updates -> cassandraOperations.getReactiveCqlOperations().execute(updates.size() == 1
+                        ? updates.get(0)
+                        : BatchStatement.newInstance(DefaultBatchType.COUNTER, updates)), concurrency)
+                .then();
+    }
+
+    public Flux<DailyActivityCount> findDaily(String activityType, LocalDate from, LocalDate to) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Range must be ordered and span at most " + maxRangeDays + " days"));
+        }
+        return dailyCountRepository.findInRange(activityType, from, to)
+                .map(count -> new DailyActivityCount(count.getDay(), count.getTotal()));
+    }
+
+    public Mono<Map<String, Long>> findForUser(String userId) {
+        return userCountRepository.findByUserId(userId)
+                .collectMap(ActivityUserCount::getActivityType, ActivityUserCount::getTotal);
+    }
+
+    private record DailyKey(String activityType, LocalDate day) {
+    }
+
+    private record UserKey(String userId, String activityType) {
+    }
+}
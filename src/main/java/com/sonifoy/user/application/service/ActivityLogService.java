@@ -0,0 +1,164 @@
+package com.sonifoy.user.application.service;
+
+import com.datastax.oss.driver.api.core.servererrors.InvalidQueryException;
+import com.datastax.oss.driver.api.core.servererrors.ProtocolError;
+import com.sonifoy.user.domain.model.ActivityPage;
+import com.sonifoy.user.domain.model.UserActivity;
+import com.sonifoy.user.infrastructure.adapter.out.persistence.UserActivityLog;
+import com.sonifoy.user.infrastructure.adapter.out.persistence.UserActivityLogRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
+import org.springframework.data.cassandra.core.query.CassandraPageRequest;
+import org.springframework.data.cassandra.core.query.Criteria;
+import org.springframework.data.cassandra.core.query.Query;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Reads user activity one monthly partition at a time, newest first.
+ */
+@Service
+@RequiredArgsConstructor
+public class ActivityLogService {
+
+    private final UserActivityLogRepository activityLogRepository;
+    private final ReactiveCassandraOperations cassandraOperations;
+
+    @Value("${activity-log.max-lookback-months:24}")
+    private int maxLookbackMonths;
+
+    public Flux<UserActivity> findRecent(String userId, int limit) {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        return Flux.range(0, maxLookbackMonths)
+                .concatMap(i -> activityLogRepository.findLatestInBucket(userId,
+                        UserActivityLog.bucketOf(current.minusMonths(i)), limit))
+                .take(limit)
+                .map(this::mapToDomain);
+    }
+
+    public Flux<UserActivity> findBetween(String userId, Instant from, Instant to) {
+        YearMonth first = YearMonth.from(from.atZone(ZoneOffset.UTC));
+        YearMonth last = YearMonth.from(to.atZone(ZoneOffset.UTC));
+        long months = Math.min(first.until(last, ChronoUnit.MONTHS) + 1, maxLookbackMonths);
+        return Flux.range(0, (int) Math.max(months, 0))
+                .concatMap(i -> activityLogRepository.findInBucketBetween(userId,
+                        UserActivityLog.bucketOf(last.minusMonths(i)), from, to))
+                .map(this::mapToDomain);
+    }
+
+    /**
+     * Streams the whole history newest first. Rows are fetched from Cassandra page by
+     * page as the subscriber requests them.
+     */
+    public Flux<UserActivity> streamHistory(String userId) {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        return Flux.range(0, maxLookbackMonths)
+                .concatMap(i -> activityLogRepository.findByUserIdAndBucket(userId,
+                        UserActivityLog.bucketOf(current.minusMonths(i))))
+                .map(this::mapToDomain);
+    }
+
+    /**
+     * Returns one page of history. The cursor is the monthly bucket plus the Cassandra
+     * paging state within it, so each page is a single-partition read.
+     */
+    public Mono<ActivityPage> findPage(String userId, String cursor, int size) {
+        if (cursor == null || cursor.isBlank()) {
+            return fetchPage(userId, YearMonth.now(ZoneOffset.UTC), null, size);
+        }
+        YearMonth month;
+        ByteBuffer pagingState;
+        try {
+            int separator = cursor.indexOf('.');
+            int bucket = Integer.parseInt(separator < 0 ? cursor : cursor.substring(0, separator));
+            month = YearMonth.of(bucket / 100, bucket % 100);
+            pagingState = separator < 0 ? null
+                    : ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor"));
+        }
+        return fetchPage(userId, month, pagingState, size);
+    }
+
+    private Mono<ActivityPage> fetchPage(String userId, YearMonth month, ByteBuffer pagingState, int size) {
+        if (month.isBefore(oldestMonth())) {
+            return Mono.just(new ActivityPage(List.of(), null));
+        }
+        CassandraPageRequest pageRequest = pagingState == null ? CassandraPageRequest.first(size)
+                : CassandraPageRequest.of(PageRequest.of(1, size), pagingState);
+        Query query = Query.query(Criteria.where("userId").is(userId),
+                Criteria.where("bucket").is(UserActivityLog.bucketOf(month)))
+                .pageRequest(pageRequest);
+
+        return cassandraOperations.slice(query, UserActivityLog.class)
+                .onErrorMap(e -> pagingState != null && isRejectedPagingState(e),
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor"))
+                .flatMap(slice -> {
+                    List<UserActivity> items = slice.getContent().stream().map(this::mapToDomain).toList();
+                    if (slice.hasNext()) {
+                        ByteBuffer next = ((CassandraPageRequest) slice.nextPageable()).getPagingState();
+                        return Mono.just(new ActivityPage(items, encodeCursor(month, next)));
+                    }
+                    YearMonth previous = month.minusMonths(1);
+                    if (items.isEmpty()) {
+                        // Skip empty months instead of handing the client an empty page
+                        return fetchPage(userId, previous, null, size);
+                    }
+                    String nextCursor = previous.isBefore(oldestMonth()) ? null : encodeCursor(previous, null);
+                    return Mono.just(new ActivityPage(items, nextCursor));
+                });
+    }
+
+    /**
+     * A paging state that was tampered with or belongs to another query passes decoding
+     * and is only rejected by the driver or the coordinator.
+     */
+    private static boolean isRejectedPagingState(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ProtocolError || cause instanceof InvalidQueryException
+                    || cause instanceof IllegalArgumentException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private YearMonth oldestMonth() {
+        return YearMonth.now(ZoneOffset.UTC).minusMonths(maxLookbackMonths - 1L);
+    }
+
+    private static String encodeCursor(YearMonth month, ByteBuffer pagingState) {
+        String bucket = Integer.toString(UserActivityLog.bucketOf(month));
+        if (pagingState == null) {
+            return bucket;
+        }
+        byte[] state = new byte[pagingState.remaining()];
+        pagingState.duplicate().get(state);
+        return bucket + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(state);
+    }
+
+    private UserActivity mapToDomain(UserActivityLog entity) {
+        return UserActivity.builder()
+                .id(entity.getId() != null ? entity.getId().toString() : null)
+                .userId(entity.getUserId())
+                .activityType(entity.getActivityType())
+                .description(entity.getDescription())
+                .timestamp(entity.getTimestamp())
+                .deviceData(entity.getDeviceData())
+                .ipAddress(entity.getIpAddress())
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.sonifoy.user.application.service;
+
+import com.sonifoy.user.infrastructure.adapter.out.persistence.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Absorbs activity heartbeats in memory and writes them to {@code users} in one
+ * batched UPDATE per flush, so the write rate depends on the flush interval and
+ * not on traffic.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HeartbeatService {
+
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(30);
+
+    private final UserRepository userRepository;
+
+    // ConcurrentHashMap locks per bin, so concurrent heartbeats for different users do not contend
+    private final Map<String, Heartbeat> pending = new ConcurrentHashMap<>();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+
+    public void record(String email, Long sessionDurationSeconds) {
+        received.increment();
+        Instant now = Instant.now();
+        pending.merge(email, new Heartbeat(now, sessionDurationSeconds),
+                (previous, current) -> current.sessionDuration() != null ? current
+                        : new Heartbeat(current.lastActiveAt(), previous.sessionDuration()));
+    }
+
+    @Scheduled(fixedDelayString = "${users.heartbeat.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, Heartbeat>> snapshot = new ArrayList<>(pending.size());
+        pending.forEach((email, heartbeat) -> snapshot.add(Map.entry(email, heartbeat)));
+
+        int size = snapshot.size();
+        String[] emails = new String[size];
+        String[] lastActiveAt = new String[size];
+        String[] sessionDurations = new String[size];
+        for (int i = 0; i < size; i++) {
+            Map.Entry<String, Heartbeat> entry = snapshot.get(i);
+            emails[i] = entry.getKey();
+            lastActiveAt[i] = entry.getValue().lastActiveAt().toString();
+            sessionDurations[i] = entry.getValue().sessionDuration() != null
+                    ? entry.getValue().sessionDuration().toString()
+                    : "";
+        }
+
+        try {
+            Integer rows = userRepository.updateActivityBatch(emails, lastActiveAt, sessionDurations)
+                    .block(FLUSH_TIMEOUT);
+            flushedRows.add(rows != null ? rows : 0);
+            // Only drop what was written; heartbeats that arrived during the flush stay queued
+            snapshot.forEach(entry -> pending.remove(entry.getKey(), entry.getValue()));
+            log.debug("Flushed {} heartbeats ({} rows updated)", size, rows);
+        } catch (Exception e) {
+            log.warn("Heartbeat flush of {} users failed, retrying next cycle: {}", size, e.getMessage());
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    public long receivedCount() {
+        return received.sum();
+    }
+
+    public long flushedRowCount() {
+        return flushedRows.sum();
+    }
+
+    private record Heartbeat(Instant lastActiveAt, Long sessionDuration) {
+    }
+}
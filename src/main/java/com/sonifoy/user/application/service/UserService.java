@@ -3,54 +3,127 @@ package com.sonifoy.user.application.service;
 import com.sonifoy.user.domain.model.User;
 import com.sonifoy.user.infrastructure.adapter.out.persistence.UserEntity;
 import com.sonifoy.user.infrastructure.adapter.out.persistence.UserRepository;
+import com.sonifoy.user.infrastructure.metrics.PipelineMetrics;
+import com.sonifoy.user.infrastructure.redis.UserProfileCache;
+import com.sonifoy.user.infrastructure.security.PasswordHasher;
+import com.sonifoy.user.infrastructure.security.PrincipalCache;
+import com.sonifoy.user.infrastructure.security.SessionKeyStore;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final PrincipalCache principalCache;
+    private final UserProfileCache profileCache;
+    private final PipelineMetrics metrics;
+    private final SessionKeyStore sessionKeyStore;
 
     public Mono<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .map(this::mapToDomain)
+        return profileCache.get(email, () -> metrics.repository("findByEmail", userRepository.findByEmail(email))
+                        .map(this::mapToDomain))
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found")));
     }
 
-    public Mono<User> updateProfile(String email, String name) {
-        return userRepository.findByEmail(email)
-                .flatMap(userEntity -> {
-                    if (name != null && !name.isBlank()) {
-                        userEntity.setName(name);
-                    }
-                    return userRepository.save(userEntity);
-                })
-                .map(this::mapToDomain)
+    /**
+     * Resolves the ETag of a profile from the locally cached copy or, failing that,
+     * from the row's id and {@code updated_at} alone. Mirrors {@link #profileETag(User)}.
+     */
+    public Mono<String> getProfileETag(String email) {
+        User cached = profileCache.peek(email);
+        if (cached != null) {
+            return Mono.just(profileETag(cached));
+        }
+        return metrics.repository("findVersionByEmail", userRepository.findVersionByEmail(email))
+                .map(version -> profileETag(String.valueOf(version.id()), version.updatedAt()))
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found")));
     }
 
+    public static String profileETag(User user) {
+        return profileETag(user.getId(), user.getUpdatedAt());
+    }
+
+    // Weak: the encrypted representation differs on every response even when the profile does not
+    private static String profileETag(String id, Instant updatedAt) {
+        return "W/\"" + id + "-" + (updatedAt != null ? Long.toHexString(updatedAt.toEpochMilli()) : "0") + "\"";
+    }
+
+    public Flux<User> getUsersBatch(Collection<Long> ids, Collection<String> emails) {
+        if (ids.isEmpty() && emails.isEmpty()) {
+            return Flux.empty();
+        }
+        return metrics.repository("findAllByIdsOrEmails", userRepository.findAllByIdsOrEmails(
+                        ids.toArray(Long[]::new), emails.toArray(String[]::new)))
+                .map(this::mapToDomain);
+    }
+
+    /**
+     * Updates only the changed columns without reading the row first. When
+     * {@code expectedUpdatedAt} is given the write only applies if the row still
+     * carries that timestamp, otherwise 409 is returned.
+     */
+    public Mono<User> updateProfile(String email, String name, Instant expectedUpdatedAt) {
+        if (name == null || name.isBlank()) {
+            return getUserByEmail(email);
+        }
+        Mono<UserEntity> update = expectedUpdatedAt == null
+                ? metrics.repository("updateName", userRepository.updateName(email, name))
+                : metrics.repository("updateNameIfUnmodified",
+                        userRepository.updateNameIfUnmodified(email, name, expectedUpdatedAt));
+        return update
+                .map(this::mapToDomain)
+                .flatMap(user -> profileCache.put(user).thenReturn(user))
+                .switchIfEmpty(Mono.defer(() -> metrics
+                        .repository("existsByEmail", userRepository.existsByEmail(email))
+                        .flatMap(exists -> Mono.error(exists
+                                ? new ResponseStatusException(HttpStatus.CONFLICT, "Profile was modified concurrently")
+                                : new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found")))));
+    }
+
     public Mono<Void> changePassword(String email, String oldPassword, String newPassword) {
-        return userRepository.findByEmail(email)
-                .flatMap(userEntity -> {
-                    if (!passwordEncoder.matches(oldPassword, userEntity.getPassword())) {
-                        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid old password"));
-                    }
-                    userEntity.setPassword(passwordEncoder.encode(newPassword));
-                    return userRepository.save(userEntity);
-                })
+        return metrics.repository("findByEmail", userRepository.findByEmail(email))
+                .flatMap(userEntity -> passwordHasher.matches(oldPassword, userEntity.getPassword())
+                        .flatMap(matches -> {
+                            if (!matches) {
+                                return Mono.error(
+                                        new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid old password"));
+                            }
+                            // A hash stored at a lower cost is upgraded here, on the only
+                            // successful verification this service performs
+                            return passwordHasher.encodeReplacing(newPassword, userEntity.getPassword())
+                                    .flatMap(encoded -> metrics.repository("updatePassword",
+                                            userRepository.updatePassword(email, encoded)))
+                                    .thenReturn(userEntity);
+                        }))
+                .doOnNext(saved -> principalCache.invalidate(saved.getEmail()))
+                .flatMap(saved -> profileCache.evict(saved.getEmail()).thenReturn(saved))
+                // Revokes the sessions that have authenticated here as this user, the caller's included
+                .flatMap(saved -> sessionKeyStore.removeAllForUser(saved.getEmail())
+                        .doOnNext(sessionIds -> log.info("Revoked {} indexed sessions after password change",
+                                sessionIds.size()))
+                        .onErrorResume(e -> {
+                            log.warn("Session revocation failed after password change: {}", e.getMessage());
+                            return Mono.empty();
+                        })
+                        .thenReturn(saved))
                 .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found")))
                 .then();
     }
 
-    private User mapToDomain(UserEntity entity) {
+    User mapToDomain(UserEntity entity) {
         return User.builder()
                 .id(entity.getId() != null ? entity.getId().toString() : null)
                 .email(entity.getEmail())
@@ -0,0 +1,15 @@
+package com.sonifoy.user.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityPage {
+    private List<UserActivity> items;
+    private String nextCursor; // null when the history is exhausted
+}
@@ -0,0 +1,15 @@
+package com.sonifoy.user.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyActivityCount {
+    private LocalDate day; // UTC
+    private long count;
+}
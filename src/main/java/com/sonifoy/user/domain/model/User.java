@@ -42,6 +42,7 @@ public class User {
         ARTISTA,
         SELLO,
         USER,
-        DEVELOPER
+        DEVELOPER,
+        SERVICE
     }
 }
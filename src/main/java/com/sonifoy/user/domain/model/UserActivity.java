@@ -0,0 +1,22 @@
+package com.sonifoy.user.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserActivity {
+    private String id;
+    private String userId;
+    private String activityType;
+    private String description;
+    private Instant timestamp;
+    private String deviceData;
+    private String ipAddress;
+}
@@ -1,37 +1,167 @@
 package com.sonifoy.user.infrastructure.adapter.in.messaging;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sonifoy.user.application.service.ActivityCounterService;
 import com.sonifoy.user.infrastructure.adapter.in.messaging.dto.UserRegisteredEvent;
 import com.sonifoy.user.infrastructure.adapter.out.persistence.UserActivityLog;
-import com.sonifoy.user.infrastructure.adapter.out.persistence.UserActivityLogRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.cassandra.core.InsertOptions;
+import org.springframework.data.cassandra.core.ReactiveCassandraOperations;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class KafkaConsumerService {
 
-    private final UserActivityLogRepository activityLogRepository;
+    private static final String REGISTRATION = "REGISTRATION";
+    private static final InsertOptions INSERT_IF_NOT_EXISTS = InsertOptions.builder().withIfNotExists().build();
 
-    @KafkaListener(topics = "user-events", groupId = "user-service-group")
-    public void consumeUserRegisteredEvent(UserRegisteredEvent event) {
-        log.info("Received UserRegisteredEvent for email: {}", event.getEmail());
+    private final ReactiveCassandraOperations cassandraOperations;
+    private final ActivityCounterService activityCounters;
+    private final Cache<UUID, Boolean> recentlyWritten;
+    private final LongAdder duplicatesSkipped = new LongAdder();
+    private final LongAdder counterUpdateFailures = new LongAdder();
 
-        UserActivityLog logEntry = UserActivityLog.builder()
-                .id(UUID.randomUUID())
+    @Value("${activity-log.ingest.concurrency:32}")
+    private int concurrency;
+
+    @Value("${activity-log.ingest.timeout-seconds:30}")
+    private long timeoutSeconds;
+
+    public KafkaConsumerService(
+            ReactiveCassandraOperations cassandraOperations,
+            ActivityCounterService activityCounters,
+            @Value("${activity-log.ingest.dedup.max-size:100000}") long dedupMaxSize,
+            @Value("${activity-log.ingest.dedup.ttl-minutes:60}") long dedupTtlMinutes) {
+        this.cassandraOperations = cassandraOperations;
+        this.activityCounters = activityCounters;
+        this.recentlyWritten = Caffeine.newBuilder()
+                .maximumSize(dedupMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(dedupTtlMinutes))
+                .build();
+    }
+
+    /**
+     * Writes each polled batch to Cassandra as individual inserts with bounded
+     * concurrency and acknowledges the offsets only once every write has landed.
+     * Rows of a chunk land in different (user, month) partitions, so batching them
+     * would only route all the work through one coordinator.
+     * A failure propagates to the container error handler, which redelivers the batch.
+     * <p>
+     * Log ids are derived from the event and rows are inserted with IF NOT EXISTS, so
+     * a redelivered or replayed event finds its own row and is not applied again.
+     * Events written recently are skipped before they reach Cassandra; ids are only
+     * remembered once their write succeeded.
+     * <p>
+     * The activity counters are incremented only for the rows this batch actually
+     * created, so no replay (after a restart, a rebalance or an offset reset) counts an
+     * event twice. They are applied even when another write of the batch failed,
+     * because the redelivered batch will find those rows already present. A failed
+     * counter update is logged and counted but never fails the batch.
+     */
+    @KafkaListener(topics = "user-events", groupId = "user-service-group", batch = "true")
+    public void consumeUserRegisteredEvents(List<UserRegisteredEvent> events,
+            @Header(KafkaHeaders.RECEIVED_TIMESTAMP) List<Long> recordTimestamps, Acknowledgment acknowledgment) {
+        log.info("Received batch of {} UserRegisteredEvents", events.size());
+
+        Map<UUID, UserActivityLog> logs = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            UserRegisteredEvent event = events.get(i);
+            if (event == null || event.getUserId() == null) {
+                continue;
+            }
+            UserActivityLog activityLog = toActivityLog(event, Instant.ofEpochMilli(recordTimestamps.get(i)));
+            if (recentlyWritten.getIfPresent(activityLog.getId()) != null
+                    || logs.putIfAbsent(activityLog.getId(), activityLog) != null) {
+                duplicatesSkipped.increment();
+            }
+        }
+
+        Queue<UserActivityLog> created = new ConcurrentLinkedQueue<>();
+        try {
+            Flux.fromIterable(logs.values())
+                    .flatMap(activityLog -> cassandraOperations.insert(activityLog, INSERT_IF_NOT_EXISTS)
+                            .doOnNext(result -> {
+                                if (result.wasApplied()) {
+                                    created.add(activityLog);
+                                }
+                                remember(activityLog);
+                            }), concurrency)
+                    .then()
+                    .block(Duration.ofSeconds(timeoutSeconds));
+        } finally {
+            incrementCounters(created);
+        }
+
+        acknowledgment.acknowledge();
+        log.info("Successfully logged {} registration activities to Cassandra ({} new, {} skipped)", logs.size(),
+                created.size(), events.size() - logs.size());
+    }
+
+    public long duplicatesSkipped() {
+        return duplicatesSkipped.sum();
+    }
+
+    public long counterUpdateFailures() {
+        return counterUpdateFailures.sum();
+    }
+
+    private void incrementCounters(Collection<UserActivityLog> created) {
+        if (created.isEmpty()) {
+            return;
+        }
+        activityCounters.increment(created)
+                .timeout(Duration.ofSeconds(timeoutSeconds))
+                .onErrorResume(e -> {
+                    counterUpdateFailures.increment();
+                    log.warn("Activity counter update failed for {} logs: {}", created.size(), e.getMessage());
+                    return Mono.empty();
+                })
+                .block();
+    }
+
+    private void remember(UserActivityLog written) {
+        recentlyWritten.put(written.getId(), Boolean.TRUE);
+    }
+
+    /**
+     * Events without a timestamp fall back to the Kafka record timestamp, which a
+     * replay preserves, so the derived id stays stable.
+     */
+    private UserActivityLog toActivityLog(UserRegisteredEvent event, Instant recordTimestamp) {
+        Instant timestamp = event.getTimestamp() != null ? event.getTimestamp() : recordTimestamp;
+        return UserActivityLog.builder()
+                .id(activityLogId(event.getUserId(), timestamp))
                 .userId(event.getUserId())
-                .activityType("REGISTRATION")
+                .bucket(UserActivityLog.bucketOf(timestamp))
+                .activityType(REGISTRATION)
                 .description("User registered with email: " + event.getEmail())
-                .timestamp(event.getTimestamp())
+                .timestamp(timestamp)
                 .build();
+    }
 
-        activityLogRepository.save(logEntry)
-                .doOnSuccess(saved -> log.info("Successfully logged activity to Cassandra for User ID: {}",
-                        event.getUserId()))
-                .subscribe();
+    private static UUID activityLogId(String userId, Instant timestamp) {
+        return UUID.nameUUIDFromBytes((REGISTRATION + '|' + userId + '|' + timestamp.toEpochMilli())
+                .getBytes(StandardCharsets.UTF_8));
     }
 }
@@ -1,30 +1,67 @@
 package com.sonifoy.user.infrastructure.adapter.in.web;
 
+import com.sonifoy.user.application.service.ActivityCounterService;
+import com.sonifoy.user.application.service.ActivityLogService;
+import com.sonifoy.user.application.service.HeartbeatService;
 import com.sonifoy.user.application.service.UserService;
+import com.sonifoy.user.domain.model.ActivityPage;
+import com.sonifoy.user.domain.model.DailyActivityCount;
 import com.sonifoy.user.domain.model.User;
+import com.sonifoy.user.domain.model.UserActivity;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.security.Principal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/users")
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final int MAX_ACTIVITY_PAGE_SIZE = 100;
+
+    @Value("${users.batch-lookup.max-size:100}")
+    private int maxBatchLookupSize;
+
     private final UserService userService;
+    private final ActivityLogService activityLogService;
+    private final HeartbeatService heartbeatService;
+    private final ActivityCounterService activityCounterService;
 
+    /**
+     * Answers 304 without loading, serializing or encrypting the profile when the
+     * client's {@code If-None-Match} still matches.
+     */
     @GetMapping("/profile")
-    public Mono<User> getProfile(Principal principal) {
-        return userService.getUserByEmail(principal.getName());
+    public Mono<User> getProfile(Principal principal, ServerWebExchange exchange) {
+        exchange.getResponse().getHeaders().setCacheControl(CacheControl.noCache().cachePrivate());
+        return userService.getProfileETag(principal.getName())
+                .flatMap(etag -> exchange.checkNotModified(etag)
+                        ? Mono.<User>empty()
+                        : userService.getUserByEmail(principal.getName()));
     }
 
     @PutMapping("/profile")
-    public Mono<User> updateProfile(Principal principal, @RequestBody UpdateProfileRequest request) {
-        return userService.updateProfile(principal.getName(), request.getName());
+    public Mono<User> updateProfile(Principal principal, @RequestBody UpdateProfileRequest request,
+            ServerWebExchange exchange) {
+        return userService.updateProfile(principal.getName(), request.getName(), request.getUpdatedAt())
+                .doOnNext(user -> exchange.getResponse().getHeaders().setETag(UserService.profileETag(user)));
     }
 
     @PostMapping("/change-password")
@@ -32,9 +69,77 @@ public class UserController {
         return userService.changePassword(principal.getName(), request.getOldPassword(), request.getNewPassword());
     }
 
+    @PostMapping("/heartbeat")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Mono<Void> heartbeat(Principal principal, @RequestBody(required = false) HeartbeatRequest request) {
+        heartbeatService.record(principal.getName(), request != null ? request.getSessionDuration() : null);
+        return Mono.empty();
+    }
+
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<User> getUsersBatch(@RequestBody BatchLookupRequest request) {
+        List<String> ids = request.getIds() != null ? request.getIds() : List.of();
+        List<String> emails = request.getEmails() != null ? request.getEmails() : List.of();
+        if (ids.size() + emails.size() > maxBatchLookupSize) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBatchLookupSize + " ids and emails per request"));
+        }
+        List<Long> numericIds;
+        try {
+            numericIds = ids.stream().map(Long::valueOf).distinct().toList();
+        } catch (NumberFormatException e) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid user id"));
+        }
+        return userService.getUsersBatch(numericIds, emails.stream().distinct().toList());
+    }
+
+    @GetMapping("/activity")
+    public Mono<ActivityPage> getActivity(Principal principal, @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_ACTIVITY_PAGE_SIZE));
+        return userService.getUserByEmail(principal.getName())
+                .flatMap(user -> activityLogService.findPage(user.getId(), cursor, pageSize));
+    }
+
+    @GetMapping(value = "/activity/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserActivity> streamActivity(Principal principal) {
+        return userService.getUserByEmail(principal.getName())
+                .flatMapMany(user -> activityLogService.streamHistory(user.getId()));
+    }
+
+    @GetMapping("/activity/counts")
+    public Mono<Map<String, Long>> getActivityCounts(Principal principal) {
+        return userService.getUserByEmail(principal.getName())
+                .flatMap(user -> activityCounterService.findForUser(user.getId()));
+    }
+
+    /**
+     * Daily totals of one activity type across all users, newest day first. Admin only.
+     */
+    @GetMapping("/activity/counts/daily")
+    public Flux<DailyActivityCount> getDailyActivityCounts(@RequestParam String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return activityCounterService.findDaily(type, start, end);
+    }
+
+    @Data
+    public static class HeartbeatRequest {
+        private Long sessionDuration; // in seconds, optional
+    }
+
+    @Data
+    public static class BatchLookupRequest {
+        private List<String> ids;
+        private List<String> emails;
+    }
+
     @Data
     public static class UpdateProfileRequest {
         private String name;
+        private Instant updatedAt; // optional, last updatedAt seen by the client
     }
 
     @Data
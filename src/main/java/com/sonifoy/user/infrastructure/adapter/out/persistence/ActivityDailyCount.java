@@ -0,0 +1,31 @@
+package com.sonifoy.user.infrastructure.adapter.out.persistence;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.cassandra.core.cql.Ordering;
+import org.springframework.data.cassandra.core.cql.PrimaryKeyType;
+import org.springframework.data.cassandra.core.mapping.CassandraType;
+import org.springframework.data.cassandra.core.mapping.Column;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+import java.time.LocalDate;
+
+/**
+ * Counter of activities per type and UTC day, newest day first. Only ever
+ * incremented, see {@code ActivityCounterService}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("activity_counts_by_day")
+public class ActivityDailyCount {
+    @PrimaryKeyColumn(name = "activity_type", type = PrimaryKeyType.PARTITIONED, ordinal = 0)
+    private String activityType;
+    @PrimaryKeyColumn(name = "day", type = PrimaryKeyType.CLUSTERED, ordinal = 1, ordering = Ordering.DESCENDING)
+    private LocalDate day;
+    @Column("total")
+    @CassandraType(type = CassandraType.Name.COUNTER)
+    private long total;
+}
@@ -0,0 +1,16 @@
+package com.sonifoy.user.infrastructure.adapter.out.persistence;
+
+import org.springframework.data.cassandra.core.mapping.MapId;
+import org.springframework.data.cassandra.repository.Query;
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+@Repository
+public interface ActivityDailyCountRepository extends ReactiveCassandraRepository<ActivityDailyCount, MapId> {
+
+    @Query("SELECT * FROM activity_counts_by_day WHERE activity_type = ?0 AND day >= ?1 AND day <= ?2")
+    Flux<ActivityDailyCount> findInRange(String activityType, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,27 @@
+package com.sonifoy.user.infrastructure.adapter.out.persistence;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.cassandra.core.cql.PrimaryKeyType;
+import org.springframework.data.cassandra.core.mapping.CassandraType;
+import org.springframework.data.cassandra.core.mapping.Column;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+/**
+ * Counter of activities per user and type; one partition holds all of a user's totals.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("activity_counts_by_user")
+public class ActivityUserCount {
+    @PrimaryKeyColumn(name = "user_id", type = PrimaryKeyType.PARTITIONED, ordinal = 0)
+    private String userId;
+    @PrimaryKeyColumn(name = "activity_type", type = PrimaryKeyType.CLUSTERED, ordinal = 1)
+    private String activityType;
+    @Column("total")
+    @CassandraType(type = CassandraType.Name.COUNTER)
+    private long total;
+}
@@ -0,0 +1,12 @@
+package com.sonifoy.user.infrastructure.adapter.out.persistence;
+
+import org.springframework.data.cassandra.core.mapping.MapId;
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ActivityUserCountRepository extends ReactiveCassandraRepository<ActivityUserCount, MapId> {
+
+    Flux<ActivityUserCount> findByUserId(String userId);
+}
@@ -0,0 +1,31 @@
+package com.sonifoy.user.infrastructure.adapter.out.persistence;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.cassandra.core.mapping.PrimaryKey;
+import org.springframework.data.cassandra.core.mapping.Table;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Original UUID-keyed activity log layout. Only read by the one-time copy into
+ * {@link UserActivityLog}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("user_activity_logs")
+public class LegacyUserActivityLog {
+    @PrimaryKey
+    private UUID id;
+    private String userId;
+    private String activityType;
+    private String description;
+    private Instant timestamp;
+    private String deviceData;
+    private String ipAddress;
+}
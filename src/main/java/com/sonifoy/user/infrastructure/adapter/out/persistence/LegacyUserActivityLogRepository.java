@@ -0,0 +1,10 @@
+package com.sonifoy.user.infrastructure.adapter.out.persistence;
+
+import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface LegacyUserActivityLogRepository extends ReactiveCassandraRepository<LegacyUserActivityLog, UUID> {
+}
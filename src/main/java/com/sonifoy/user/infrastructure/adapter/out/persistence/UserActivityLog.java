@@ -4,24 +4,48 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.springframework.data.cassandra.core.mapping.PrimaryKey;
+import org.springframework.data.cassandra.core.cql.Ordering;
+import org.springframework.data.cassandra.core.cql.PrimaryKeyType;
+import org.springframework.data.cassandra.core.mapping.Column;
+import org.springframework.data.cassandra.core.mapping.PrimaryKeyColumn;
 import org.springframework.data.cassandra.core.mapping.Table;
 
 import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.util.UUID;
 
+/**
+ * Activity log partitioned by (userId, monthly bucket) and clustered newest first,
+ * so per-user reads are always single-partition slices.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table("user_activity_logs")
+@Table("user_activity_logs_by_user")
 public class UserActivityLog {
-    @PrimaryKey
-    private UUID id;
+    @PrimaryKeyColumn(name = "user_id", type = PrimaryKeyType.PARTITIONED, ordinal = 0)
     private String userId;
+    @PrimaryKeyColumn(name = "bucket", type = PrimaryKeyType.PARTITIONED, ordinal = 1)
+    private int bucket; // yyyyMM in UTC
+    @PrimaryKeyColumn(name = "occurred_at", type = PrimaryKeyType.CLUSTERED, ordinal = 2, ordering = Ordering.DESCENDING)
+    private Instant timestamp;
+    @PrimaryKeyColumn(name = "id", type = PrimaryKeyType.CLUSTERED, ordinal = 3)
+    private UUID id;
+    @Column("activity_type")
     private String activityType; // LOGIN, LOGOUT, PROFILE_VIEW, STREAM_START
     private String description;
-    private Instant timestamp;
+    @Column("device_data")
     private String deviceData;
+    @Column("ip_address")
     private String ipAddress;
+
+    public static int bucketOf(Instant instant) {
+        return bucketOf(YearMonth.from(instant.atZone(ZoneOffset.UTC)));
+    }
+
+    public static int bucketOf(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
 }
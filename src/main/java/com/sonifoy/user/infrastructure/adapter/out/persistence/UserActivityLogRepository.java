@@ -1,12 +1,22 @@
 package com.sonifoy.user.infrastructure.adapter.out.persistence;
 
+import org.springframework.data.cassandra.core.mapping.MapId;
+import org.springframework.data.cassandra.repository.Query;
 import org.springframework.data.cassandra.repository.ReactiveCassandraRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 
-import java.util.UUID;
+import java.time.Instant;
 
 @Repository
-public interface UserActivityLogRepository extends ReactiveCassandraRepository<UserActivityLog, UUID> {
-    Flux<UserActivityLog> findAllByUserId(String userId);
+public interface UserActivityLogRepository extends ReactiveCassandraRepository<UserActivityLog, MapId> {
+
+    Flux<UserActivityLog> findByUserIdAndBucket(String userId, int bucket);
+
+    @Query("SELECT * FROM user_activity_logs_by_user WHERE user_id = ?0 AND bucket = ?1 LIMIT ?2")
+    Flux<UserActivityLog> findLatestInBucket(String userId, int bucket, int limit);
+
+    @Query("SELECT * FROM user_activity_logs_by_user WHERE user_id = ?0 AND bucket = ?1"
+            + " AND occurred_at >= ?2 AND occurred_at < ?3")
+    Flux<UserActivityLog> findInBucketBetween(String userId, int bucket, Instant from, Instant to);
 }
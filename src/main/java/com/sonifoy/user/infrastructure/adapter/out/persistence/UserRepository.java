@@ -1,8 +1,54 @@
 package com.sonifoy.user.infrastructure.adapter.out.persistence;
 
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+
 public interface UserRepository extends R2dbcRepository<UserEntity, Long> {
     Mono<UserEntity> findByEmail(String email);
+
+    Mono<Boolean> existsByEmail(String email);
+
+    @Query("SELECT id, updated_at FROM users WHERE email = :email")
+    Mono<UserVersion> findVersionByEmail(String email);
+
+    // Column-targeted updates keyed on email so only the owning hash partition is touched
+
+    @Query("UPDATE users SET name = :name, updated_at = CURRENT_TIMESTAMP WHERE email = :email RETURNING *")
+    Mono<UserEntity> updateName(String email, String name);
+
+    @Query("UPDATE users SET name = :name, updated_at = CURRENT_TIMESTAMP"
+            + " WHERE email = :email AND updated_at = :expectedUpdatedAt RETURNING *")
+    Mono<UserEntity> updateNameIfUnmodified(String email, String name, Instant expectedUpdatedAt);
+
+    @Modifying
+    @Query("UPDATE users SET password = :password, updated_at = CURRENT_TIMESTAMP WHERE email = :email")
+    Mono<Integer> updatePassword(String email, String password);
+
+    /**
+     * Applies many coalesced heartbeats in one statement. The arrays are parallel;
+     * an empty session duration keeps the stored value.
+     */
+    @Modifying
+    @Query("UPDATE users AS u SET last_active_at = CAST(v.last_active_at AS timestamptz),"
+            + " last_session_duration = COALESCE(CAST(NULLIF(v.session_duration, '') AS bigint),"
+            + " u.last_session_duration)"
+            + " FROM unnest(CAST(:emails AS varchar[]), CAST(:lastActiveAt AS varchar[]),"
+            + " CAST(:sessionDurations AS varchar[])) AS v(email, last_active_at, session_duration)"
+            + " WHERE u.email = v.email")
+    Mono<Integer> updateActivityBatch(String[] emails, String[] lastActiveAt, String[] sessionDurations);
+
+    /**
+     * Resolves users matching any of the given ids or emails in one round trip. The
+     * email branch is keyed on the partition column, so Postgres only probes the
+     * partitions those emails hash to; the id branch skips rows already matched by email.
+     */
+    @Query("SELECT * FROM users WHERE email = ANY(CAST(:emails AS varchar[]))"
+            + " UNION ALL SELECT * FROM users WHERE id = ANY(CAST(:ids AS bigint[]))"
+            + " AND email <> ALL(CAST(:emails AS varchar[]))")
+    Flux<UserEntity> findAllByIdsOrEmails(Long[] ids, String[] emails);
 }
@@ -0,0 +1,9 @@
+package com.sonifoy.user.infrastructure.adapter.out.persistence;
+
+import java.time.Instant;
+
+/**
+ * The columns that identify a revision of a user row, read without the rest of it.
+ */
+public record UserVersion(Long id, Instant updatedAt) {
+}
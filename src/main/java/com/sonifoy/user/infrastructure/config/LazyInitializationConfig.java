@@ -0,0 +1,42 @@
+package com.sonifoy.user.infrastructure.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Marks beans that are not needed to serve traffic as lazy so they are created on
+ * first use instead of during startup. Springdoc only matters once someone opens the
+ * API docs, so its controllers and their dependencies stay uninitialized until then.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyInitializationConfig {
+
+    private static final List<String> LAZY_PACKAGES = List.of("org.springdoc.");
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyNonCriticalBeans() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (isNonCritical(beanFactory, definition)) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    private static boolean isNonCritical(ConfigurableListableBeanFactory beanFactory, BeanDefinition definition) {
+        String className = definition.getBeanClassName();
+        // @Bean methods have no class name of their own; use the declaring configuration
+        if (className == null && definition.getFactoryBeanName() != null
+                && beanFactory.containsBeanDefinition(definition.getFactoryBeanName())) {
+            className = beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName();
+        }
+        return className != null && LAZY_PACKAGES.stream().anyMatch(className::startsWith);
+    }
+}
@@ -5,42 +5,71 @@ import com.sonifoy.user.infrastructure.adapter.out.persistence.UserEntity;
 import com.sonifoy.user.infrastructure.adapter.out.persistence.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
+/**
+ * Seeds fake profiles for local development. The bean is lazy and only created once
+ * the application is ready, so Faker and the value pools never delay startup.
+ */
 @Component
+@Lazy
 @Profile("local")
 @RequiredArgsConstructor
 @Slf4j
-public class LocalUserSeeder implements CommandLineRunner {
+public class LocalUserSeeder {
+
+    // One statement per batch: the generated columns are bound as arrays and expanded with unnest
+    private static final String BULK_INSERT_SQL = """
+            INSERT INTO users (email, name, password, roles, avatar_url, verified, profile_type, city, country)
+            SELECT e, n, $5, ARRAY['USER'], 'https://i.pravatar.cc/150?u=' || e, TRUE, 'FREE', c, k
+            FROM unnest($1::varchar[], $2::varchar[], $3::varchar[], $4::varchar[]) AS t(e, n, c, k)
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String DEFAULT_PASSWORD = "Perros123*";
+    private static final int FAKE_VALUE_POOL_SIZE = 2000;
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final Faker faker = new Faker();
+    private final DatabaseClient databaseClient;
 
-    private static final int USER_COUNT = 20000;
-    private static final int BATCH_SIZE = 500;
-    private static final String DEFAULT_PASSWORD = "Perros123*";
+    @Value("${seeder.user-count:20000}")
+    private int userCount;
 
-    @Override
-    public void run(String... args) {
+    @Value("${seeder.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${seeder.concurrency:4}")
+    private int concurrency;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
         log.info("LocalUserSeeder execution started.");
         userRepository.count()
                 .flatMap(count -> {
-                    if (count >= USER_COUNT) {
+                    if (count >= userCount) {
                         log.info("User profile database already seeded with {} profiles.", count);
                         return Mono.empty();
                     }
-                    log.info("Seeding {} user profiles...", USER_COUNT);
+                    log.info("Seeding {} user profiles...", userCount);
                     return seedInitialData();
                 })
                 .subscribe();
@@ -65,32 +94,68 @@ public class LocalUserSeeder implements CommandLineRunner {
 
         return userRepository.findByEmail(admin.getEmail())
                 .switchIfEmpty(userRepository.save(admin))
-                .then(Mono.defer(() -> {
-                    AtomicInteger counter = new AtomicInteger(0);
-                    return Flux.range(1, USER_COUNT)
-                            .buffer(BATCH_SIZE)
-                            .flatMap(batch -> {
-                                return userRepository.saveAll(
-                                        batch.stream().map(i -> {
-                                            String email = "user" + i + "@example.com";
-                                            String name = faker.name().fullName();
-                                            return UserEntity.builder()
-                                                    .email(email)
-                                                    .name(name)
-                                                    .password(encodedPassword)
-                                                    .roles(new HashSet<>(Collections.singletonList("USER")))
-                                                    .avatarUrl("https://i.pravatar.cc/150?u=" + email)
-                                                    .verified(true)
-                                                    .profileType("FREE")
-                                                    .city(faker.address().city())
-                                                    .country(faker.address().country())
-                                                    .build();
-                                        }).toList()).collectList()
-                                        .doOnNext(list -> log.info("User Profile Seeding progress: {}/20000",
-                                                counter.addAndGet(list.size())));
-                            })
-                            .then();
-                }))
+                .then(generateFakeValuePools())
+                .flatMap(pools -> {
+                    long startedAt = System.currentTimeMillis();
+                    AtomicLong counter = new AtomicLong();
+                    int batches = (userCount + batchSize - 1) / batchSize;
+                    return Flux.range(0, batches)
+                            .flatMap(batch -> insertBatch(batch, pools, encodedPassword), concurrency)
+                            .doOnNext(rows -> log.info("User Profile Seeding progress: {}/{}",
+                                    counter.addAndGet(rows), userCount))
+                            .then(Mono.<Void>fromRunnable(() -> log.info("Seeded {} user profiles in {} ms",
+                                    counter.get(), System.currentTimeMillis() - startedAt)));
+                })
                 .doOnSuccess(v -> log.info("User profile seeding completed successfully."));
     }
+
+    private Mono<Long> insertBatch(int batch, FakeValuePools pools, String encodedPassword) {
+        int first = batch * batchSize + 1;
+        int size = Math.min(batchSize, userCount - first + 1);
+        String[] emails = new String[size];
+        String[] names = new String[size];
+        String[] cities = new String[size];
+        String[] countries = new String[size];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < size; i++) {
+            emails[i] = "user" + (first + i) + "@example.com";
+            names[i] = pools.names().get(random.nextInt(pools.names().size()));
+            cities[i] = pools.cities().get(random.nextInt(pools.cities().size()));
+            countries[i] = pools.countries().get(random.nextInt(pools.countries().size()));
+        }
+        return databaseClient.sql(BULK_INSERT_SQL)
+                .bind(0, emails)
+                .bind(1, names)
+                .bind(2, cities)
+                .bind(3, countries)
+                .bind(4, encodedPassword)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Faker is slow per call and not thread-safe, so a pool of values is generated
+     * up front, one Faker per worker, and rows are assembled from it.
+     */
+    private Mono<FakeValuePools> generateFakeValuePools() {
+        return Mono.zip(
+                generatePool(faker -> faker.name().fullName()),
+                generatePool(faker -> faker.address().city()),
+                generatePool(faker -> faker.address().country()))
+                .map(pools -> new FakeValuePools(pools.getT1(), pools.getT2(), pools.getT3()));
+    }
+
+    private Mono<List<String>> generatePool(Function<Faker, String> generator) {
+        return Mono.fromCallable(() -> {
+            Faker faker = new Faker();
+            List<String> values = new ArrayList<>(FAKE_VALUE_POOL_SIZE);
+            for (int i = 0; i < FAKE_VALUE_POOL_SIZE; i++) {
+                values.add(generator.apply(faker));
+            }
+            return values;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private record FakeValuePools(List<String> names, List<String> cities, List<String> countries) {
+    }
 }
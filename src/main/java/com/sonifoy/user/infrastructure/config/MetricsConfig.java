@@ -0,0 +1,110 @@
+package com.sonifoy.user.infrastructure.config;
+
+import com.sonifoy.user.application.service.HeartbeatService;
+import com.sonifoy.user.infrastructure.adapter.in.messaging.KafkaConsumerService;
+import com.sonifoy.user.infrastructure.redis.UserProfileCache;
+import com.sonifoy.user.infrastructure.security.CachingSessionKeyStore;
+import com.sonifoy.user.infrastructure.security.PasswordHasher;
+import com.sonifoy.user.infrastructure.security.PayloadEncryptionFilter;
+import com.sonifoy.user.infrastructure.security.PrincipalCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the counters the components already keep in memory through Micrometer.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder encryptionMetrics(PayloadEncryptionFilter filter) {
+        return registry -> {
+            FunctionCounter.builder("user.encryption.responses", filter, PayloadEncryptionFilter::encryptedResponses)
+                    .register(registry);
+            FunctionCounter.builder("user.encryption.compressed.responses", filter,
+                    PayloadEncryptionFilter::compressedResponses)
+                    .register(registry);
+            FunctionCounter.builder("user.encryption.plain.bytes", filter, PayloadEncryptionFilter::plainResponseBytes)
+                    .baseUnit("bytes")
+                    .register(registry);
+            FunctionCounter.builder("user.encryption.allocated.bytes", filter,
+                    PayloadEncryptionFilter::allocatedResponseBytes)
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(CachingSessionKeyStore sessionKeyStore, UserProfileCache profileCache,
+            PrincipalCache principalCache) {
+        return registry -> {
+            FunctionCounter.builder("user.cache.requests", sessionKeyStore, CachingSessionKeyStore::hitCount)
+                    .tags("cache", "session_key", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("user.cache.requests", sessionKeyStore, CachingSessionKeyStore::missCount)
+                    .tags("cache", "session_key", "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("user.cache.requests", profileCache, UserProfileCache::hitCount)
+                    .tags("cache", "user_profile", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("user.cache.requests", profileCache, UserProfileCache::missCount)
+                    .tags("cache", "user_profile", "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("user.principal.saved.lookups", principalCache, PrincipalCache::savedLookups)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHasher passwordHasher) {
+        return registry -> {
+            FunctionCounter.builder("user.password.hashing.completed", passwordHasher,
+                    PasswordHasher::completedCount)
+                    .register(registry);
+            FunctionCounter.builder("user.password.hashing.rejected", passwordHasher, PasswordHasher::rejectedCount)
+                    .register(registry);
+            FunctionCounter.builder("user.password.hashing.upgraded", passwordHasher, PasswordHasher::upgradedCount)
+                    .register(registry);
+            FunctionCounter.builder("user.password.hashing.queue.time", passwordHasher,
+                    hasher -> hasher.totalQueueNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                    .baseUnit("seconds")
+                    .register(registry);
+            FunctionCounter.builder("user.password.hashing.time", passwordHasher,
+                    hasher -> hasher.totalHashNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("user.password.hashing.queue.size", passwordHasher, PasswordHasher::queueSize)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder ingestionMetrics(KafkaConsumerService consumerService) {
+        return registry -> {
+            FunctionCounter.builder("user.activity.ingest.duplicates.skipped", consumerService,
+                    KafkaConsumerService::duplicatesSkipped)
+                    .register(registry);
+            FunctionCounter.builder("user.activity.counters.update.failures", consumerService,
+                    KafkaConsumerService::counterUpdateFailures)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder heartbeatMetrics(HeartbeatService heartbeatService) {
+        return registry -> {
+            FunctionCounter.builder("user.heartbeat.received", heartbeatService, HeartbeatService::receivedCount)
+                    .register(registry);
+            FunctionCounter.builder("user.heartbeat.flushed.rows", heartbeatService,
+                    HeartbeatService::flushedRowCount)
+                    .register(registry);
+            Gauge.builder("user.heartbeat.pending", heartbeatService, HeartbeatService::pendingCount)
+                    .register(registry);
+        };
+    }
+}
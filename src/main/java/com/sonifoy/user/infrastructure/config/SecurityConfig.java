@@ -1,5 +1,7 @@
 package com.sonifoy.user.infrastructure.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
@@ -12,10 +14,17 @@ import com.sonifoy.user.infrastructure.security.JwtAuthenticationFilter;
 import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+
     @Bean
     public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtAuthenticationFilter jwtFilter) {
         return http
@@ -25,15 +34,78 @@ public class SecurityConfig {
                 .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
                 .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
                 .authorizeExchange(exchanges -> exchanges
-                        .pathMatchers("/api/v1/users/public/**", "/actuator/**").permitAll()
+                        .pathMatchers("/api/v1/users/public/**", "/actuator/health/**", "/actuator/info").permitAll()
+                        .pathMatchers("/actuator/**", "/api/v1/users/activity/counts/daily").hasRole("ADMIN")
+                        // Bulk lookups expose other users' profiles; only service accounts may call them
+                        .pathMatchers("/api/v1/users/batch").hasRole("SERVICE")
                         .pathMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/webjars/**")
                         .permitAll()
                         .anyExchange().authenticated())
                 .build();
     }
 
+    /**
+     * BCrypt at the highest cost that fits the latency budget on this node, unless a
+     * strength is pinned. Hashes stay in plain BCrypt format, which encodes its own
+     * cost, so hashes of any strength keep verifying, and lower-cost ones report
+     * {@link PasswordEncoder#upgradeEncoding}.
+     * <p>
+     * Calibration takes up to a second. It starts when the bean is created, on its own
+     * thread, so it overlaps the rest of startup instead of delaying it; a password
+     * operation only waits if it arrives before calibration has finished.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password-hashing.strength:0}") int strength,
+            @Value("${security.password-hashing.latency-budget-ms:250}") long latencyBudgetMs) {
+        if (strength > 0) {
+            return new BCryptPasswordEncoder(strength);
+        }
+        CompletableFuture<PasswordEncoder> calibrated = CompletableFuture.supplyAsync(
+                () -> new BCryptPasswordEncoder(calibrateBcryptStrength(latencyBudgetMs)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-calibration");
+                    thread.setDaemon(true);
+                    thread.start();
+                });
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return calibrated.join().encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return calibrated.join().matches(rawPassword, encodedPassword);
+            }
+
+            @Override
+            public boolean upgradeEncoding(String encodedPassword) {
+                return calibrated.join().upgradeEncoding(encodedPassword);
+            }
+        };
+    }
+
+    private static int calibrateBcryptStrength(long latencyBudgetMs) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_BCRYPT_STRENGTH);
+        probe.encode("calibration"); // warm-up
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+
+        // Each extra cost step doubles the work
+        long budgetNanos = TimeUnit.MILLISECONDS.toNanos(latencyBudgetMs);
+        int strength = MIN_BCRYPT_STRENGTH;
+        long estimate = bestNanos;
+        while (strength < MAX_BCRYPT_STRENGTH && estimate * 2 <= budgetNanos) {
+            estimate *= 2;
+            strength++;
+        }
+        log.info("Calibrated BCrypt strength {} (cost {} took {} ms, budget {} ms)", strength, MIN_BCRYPT_STRENGTH,
+                TimeUnit.NANOSECONDS.toMillis(bestNanos), latencyBudgetMs);
+        return strength;
     }
 }
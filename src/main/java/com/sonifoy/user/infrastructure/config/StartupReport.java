@@ -0,0 +1,53 @@
+package com.sonifoy.user.infrastructure.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+
+/**
+ * Logs how long startup took once the application is ready, together with the
+ * fast-start features in effect and the slowest recorded startup steps. The
+ * {@code Startup report} line is stable so regressions can be tracked from logs.
+ */
+@Component
+@Slf4j
+public class StartupReport {
+
+    @Value("${startup.report.slowest-steps:10}")
+    private int slowestSteps;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        boolean cds = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile"));
+        log.info("Startup report: ready in {} ms, JVM uptime {} ms, aot={}, cds={}",
+                event.getTimeTaken().toMillis(), ManagementFactory.getRuntimeMXBean().getUptime(),
+                AotDetector.useGeneratedArtifacts(), cds);
+
+        if (event.getSpringApplication().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            StartupTimeline timeline = startup.getBufferedTimeline();
+            timeline.getEvents().stream()
+                    .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                    .limit(slowestSteps)
+                    .forEach(step -> log.info("Startup step {} ms: {}", step.getDuration().toMillis(),
+                            describe(step.getStartupStep())));
+        }
+    }
+
+    private static String describe(StartupStep step) {
+        StringBuilder description = new StringBuilder(step.getName());
+        for (StartupStep.Tag tag : step.getTags()) {
+            description.append(' ').append(tag.getKey()).append('=').append(tag.getValue());
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package com.sonifoy.user.infrastructure.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the bytes of every request and response body as they cross the wire and
+ * records them per route pattern. Runs outside {@code PayloadEncryptionFilter} so
+ * encrypted sizes are what gets measured.
+ */
+@Component
+@Order(-20)
+@RequiredArgsConstructor
+public class PayloadSizeFilter implements WebFilter {
+
+    private static final String UNKNOWN_ROUTE = "UNKNOWN";
+
+    private final PipelineMetrics metrics;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        AtomicLong bytesIn = new AtomicLong();
+        AtomicLong bytesOut = new AtomicLong();
+
+        ServerHttpRequestDecorator request = new ServerHttpRequestDecorator(exchange.getRequest()) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return super.getBody().doOnNext(buffer -> bytesIn.addAndGet(buffer.readableByteCount()));
+            }
+        };
+        ServerHttpResponseDecorator response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return super.writeWith(Flux.from(body)
+                        .doOnNext(buffer -> bytesOut.addAndGet(buffer.readableByteCount())));
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                return super.writeAndFlushWith(Flux.from(body)
+                        .map(elements -> Flux.from(elements)
+                                .doOnNext(buffer -> bytesOut.addAndGet(buffer.readableByteCount()))));
+            }
+        };
+
+        return chain.filter(exchange.mutate().request(request).response(response).build())
+                .doFinally(signal -> {
+                    String route = route(exchange);
+                    metrics.recordPayload(route, "in", bytesIn.get());
+                    metrics.recordPayload(route, "out", bytesOut.get());
+                });
+    }
+
+    private static String route(ServerWebExchange exchange) {
+        PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.getPatternString() : UNKNOWN_ROUTE;
+    }
+}
@@ -0,0 +1,109 @@
+package com.sonifoy.user.infrastructure.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Timers for the stages a request passes through (session key lookup, payload
+ * decryption and encryption, JWT validation, repository calls) and payload sizes
+ * per route, so the slowest stage can be found from the Prometheus endpoint.
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineMetrics {
+
+    public static final String SESSION_KEY_STAGE = "session_key";
+    public static final String DECRYPT_STAGE = "decrypt";
+    public static final String ENCRYPT_STAGE = "encrypt";
+    public static final String COMPRESS_STAGE = "compress";
+    public static final String DECOMPRESS_STAGE = "decompress";
+    public static final String JWT_STAGE = "jwt_validation";
+
+    private static final String STAGE_TIMER = "user.pipeline.stage";
+    private static final String REPOSITORY_TIMER = "user.repository.calls";
+    private static final String PAYLOAD_SUMMARY = "user.http.payload.bytes";
+
+    private final MeterRegistry registry;
+
+    // Meters are looked up once per tag combination; building and registering them
+    // on every call would hash the full meter id against the registry each time.
+    private final Map<String, Timer> stageTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> repositoryTimers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> payloadSummaries = new ConcurrentHashMap<>();
+
+    /**
+     * Times a synchronous stage such as decryption or token validation.
+     */
+    public <T> T record(String stage, Supplier<T> work) {
+        return stageTimer(stage).record(work);
+    }
+
+    public void record(String stage, Runnable work) {
+        stageTimer(stage).record(work);
+    }
+
+    /**
+     * Times an asynchronous stage from subscription until it terminates.
+     */
+    public <T> Mono<T> time(String stage, Mono<T> work) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return work.doFinally(signal -> sample.stop(stageTimer(stage)));
+        });
+    }
+
+    public <T> Mono<T> repository(String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return call.doFinally(signal -> sample.stop(repositoryTimer(operation, signal)));
+        });
+    }
+
+    public <T> Flux<T> repository(String operation, Flux<T> call) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(registry);
+            return call.doFinally(signal -> sample.stop(repositoryTimer(operation, signal)));
+        });
+    }
+
+    /**
+     * Records the bytes read from ({@code in}) or written to ({@code out}) the wire
+     * for a request matched to {@code route}.
+     */
+    public void recordPayload(String route, String direction, long bytes) {
+        payloadSummaries.computeIfAbsent(route + ' ' + direction, key -> DistributionSummary.builder(PAYLOAD_SUMMARY)
+                        .baseUnit("bytes")
+                        .tag("route", route)
+                        .tag("direction", direction)
+                        .register(registry))
+                .record(bytes);
+    }
+
+    private Timer stageTimer(String stage) {
+        return stageTimers.computeIfAbsent(stage, key -> Timer.builder(STAGE_TIMER)
+                .tag("stage", stage)
+                .register(registry));
+    }
+
+    private Timer repositoryTimer(String operation, SignalType signal) {
+        String outcome = switch (signal) {
+            case ON_ERROR -> "error";
+            case CANCEL -> "cancelled";
+            default -> "success";
+        };
+        return repositoryTimers.computeIfAbsent(operation + ' ' + outcome, key -> Timer.builder(REPOSITORY_TIMER)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+}
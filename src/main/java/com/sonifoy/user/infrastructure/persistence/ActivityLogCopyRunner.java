@@ -0,0 +1,78 @@
+package com.sonifoy.user.infrastructure.persistence;
+
+import com.sonifoy.user.infrastructure.adapter.out.persistence.LegacyUserActivityLog;
+import com.sonifoy.user.infrastructure.adapter.out.persistence.LegacyUserActivityLogRepository;
+import com.sonifoy.user.infrastructure.adapter.out.persistence.UserActivityLog;
+import com.sonifoy.user.infrastructure.adapter.out.persistence.UserActivityLogRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One-time copy of the UUID-keyed user_activity_logs table into the
+ * time-bucketed user_activity_logs_by_user layout. Enable with
+ * {@code activity-log.copy-legacy=true}; rows keep their ids, so re-running is safe.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "activity-log.copy-legacy", havingValue = "true")
+public class ActivityLogCopyRunner implements CommandLineRunner {
+
+    private final LegacyUserActivityLogRepository legacyRepository;
+    private final UserActivityLogRepository activityLogRepository;
+    private final int concurrency;
+
+    public ActivityLogCopyRunner(LegacyUserActivityLogRepository legacyRepository,
+            UserActivityLogRepository activityLogRepository,
+            @Value("${activity-log.copy-concurrency:16}") int concurrency) {
+        this.legacyRepository = legacyRepository;
+        this.activityLogRepository = activityLogRepository;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public void run(String... args) {
+        log.info("Copying legacy activity logs into user_activity_logs_by_user...");
+        AtomicLong copied = new AtomicLong();
+        AtomicLong skipped = new AtomicLong();
+
+        legacyRepository.findAll()
+                .filter(legacy -> {
+                    if (legacy.getUserId() == null || legacy.getTimestamp() == null) {
+                        skipped.incrementAndGet();
+                        return false;
+                    }
+                    return true;
+                })
+                .map(this::toBucketed)
+                .flatMap(activityLogRepository::save, concurrency)
+                .doOnNext(saved -> {
+                    long count = copied.incrementAndGet();
+                    if (count % 10_000 == 0) {
+                        log.info("Activity log copy progress: {} rows", count);
+                    }
+                })
+                .then()
+                .block();
+
+        log.info("Finished activity log copy: {} rows copied, {} rows without user or timestamp skipped",
+                copied.get(), skipped.get());
+    }
+
+    private UserActivityLog toBucketed(LegacyUserActivityLog legacy) {
+        return UserActivityLog.builder()
+                .id(legacy.getId())
+                .userId(legacy.getUserId())
+                .bucket(UserActivityLog.bucketOf(legacy.getTimestamp()))
+                .timestamp(legacy.getTimestamp())
+                .activityType(legacy.getActivityType())
+                .description(legacy.getDescription())
+                .deviceData(legacy.getDeviceData())
+                .ipAddress(legacy.getIpAddress())
+                .build();
+    }
+}
@@ -0,0 +1,185 @@
+package com.sonifoy.user.infrastructure.persistence;
+
+import io.r2dbc.spi.R2dbcException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.AbstractDependsOnBeanFactoryPostProcessor;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactoryBean;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Applies the versioned scripts in {@code db/migration} ({@code V<version>__<description>.sql})
+ * in order and records each one in {@code schema_migrations}. When everything is
+ * already applied startup costs a single SELECT. Otherwise the pending scripts run
+ * in one transaction under a Postgres advisory lock, so only one replica migrates
+ * during a rolling deploy.
+ * <p>
+ * Migrations run while the context is created, like the {@code spring.sql.init} step
+ * they replace, so the web server and the Kafka listeners only start once the schema
+ * exists. Repositories and the entity template are created after this bean.
+ */
+@Component
+@Slf4j
+public class SchemaMigrationRunner implements InitializingBean {
+
+    private static final String MIGRATION_LOCATION = "classpath:db/migration/V*__*.sql";
+    private static final Pattern MIGRATION_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final long ADVISORY_LOCK_KEY = 0x5EED_0001L;
+    private static final Duration TIMEOUT = Duration.ofMinutes(5);
+    private static final String UNDEFINED_TABLE = "42P01";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    public SchemaMigrationRunner(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        List<Migration> migrations = loadMigrations();
+
+        List<Migration> pending = fetchApplied()
+                // Only a missing history table means nothing was applied; anything else must fail startup
+                .onErrorResume(SchemaMigrationRunner::isUndefinedTable, e -> Mono.just(Map.of()))
+                .map(applied -> pendingMigrations(migrations, applied))
+                .block(TIMEOUT);
+        if (pending == null || pending.isEmpty()) {
+            log.info("Database schema is up to date ({} migrations applied)", migrations.size());
+            return;
+        }
+
+        log.info("Applying {} pending database migrations...", pending.size());
+        Mono<Void> migrate = databaseClient.sql("SELECT pg_advisory_xact_lock(:key)")
+                .bind("key", ADVISORY_LOCK_KEY)
+                .fetch()
+                .rowsUpdated()
+                .then(databaseClient.sql("""
+                        CREATE TABLE IF NOT EXISTS schema_migrations (
+                            version INT PRIMARY KEY,
+                            description VARCHAR(255) NOT NULL,
+                            checksum BIGINT NOT NULL,
+                            applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                        )""").fetch().rowsUpdated())
+                // Another replica may have migrated while we waited for the lock
+                .then(fetchApplied())
+                .flatMapMany(applied -> Flux.fromIterable(pendingMigrations(migrations, applied)))
+                .concatMap(this::apply)
+                .then();
+
+        transactionalOperator.transactional(migrate).block(TIMEOUT);
+        log.info("Finished database migrations.");
+    }
+
+    private Mono<Void> apply(Migration migration) {
+        long startedAt = System.currentTimeMillis();
+        return Flux.fromIterable(migration.statements())
+                .concatMap(statement -> databaseClient.sql(statement).fetch().rowsUpdated())
+                .then(databaseClient.sql("INSERT INTO schema_migrations (version, description, checksum)"
+                        + " VALUES (:version, :description, :checksum)")
+                        .bind("version", migration.version())
+                        .bind("description", migration.description())
+                        .bind("checksum", migration.checksum())
+                        .fetch()
+                        .rowsUpdated())
+                .doOnSuccess(rows -> log.info("Applied migration V{} {} in {} ms", migration.version(),
+                        migration.description(), System.currentTimeMillis() - startedAt))
+                .then();
+    }
+
+    private Mono<Map<Integer, Long>> fetchApplied() {
+        return databaseClient.sql("SELECT version, checksum FROM schema_migrations")
+                .map((row, metadata) -> Map.entry(row.get("version", Integer.class), row.get("checksum", Long.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private static boolean isUndefinedTable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof R2dbcException r2dbcException
+                    && UNDEFINED_TABLE.equals(r2dbcException.getSqlState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Migration> pendingMigrations(List<Migration> migrations, Map<Integer, Long> applied) {
+        List<Migration> pending = new ArrayList<>();
+        for (Migration migration : migrations) {
+            Long checksum = applied.get(migration.version());
+            if (checksum == null) {
+                pending.add(migration);
+            } else if (checksum != migration.checksum()) {
+                log.warn("Migration V{} {} changed after it was applied (checksum {} != {}); not re-running it",
+                        migration.version(), migration.description(), checksum, migration.checksum());
+            }
+        }
+        return pending;
+    }
+
+    private List<Migration> loadMigrations() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(MIGRATION_LOCATION);
+        List<Migration> migrations = new ArrayList<>();
+        for (Resource resource : resources) {
+            Matcher matcher = MIGRATION_NAME.matcher(resource.getFilename());
+            if (!matcher.matches()) {
+                continue;
+            }
+            byte[] content = resource.getContentAsByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            migrations.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                    crc.getValue(), splitStatements(new String(content, StandardCharsets.UTF_8))));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        return migrations;
+    }
+
+    // Scripts are plain DDL without function bodies, so splitting on ';' is enough
+    private static List<String> splitStatements(String script) {
+        String withoutComments = script.lines()
+                .filter(line -> !line.trim().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        return Arrays.stream(withoutComments.split(";"))
+                .map(String::trim)
+                .filter(statement -> !statement.isEmpty())
+                .toList();
+    }
+
+    private record Migration(int version, String description, long checksum, List<String> statements) {
+    }
+
+    /**
+     * Makes the R2DBC repositories and the entity template depend on the migrations.
+     */
+    @Component
+    static class RepositoriesDependOnMigrations extends AbstractDependsOnBeanFactoryPostProcessor {
+
+        RepositoriesDependOnMigrations() {
+            super(R2dbcEntityOperations.class, R2dbcRepositoryFactoryBean.class, SchemaMigrationRunner.class);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
@@ -20,4 +21,16 @@ public class RedisConfig {
         RedisSerializationContext<String, String> context = builder.value(valueSerializer).build();
         return new ReactiveRedisTemplate<>(factory, context);
     }
+
+    /**
+     * String keys with raw byte values, for session keys that are read on every request.
+     */
+    @Bean
+    public ReactiveRedisTemplate<String, byte[]> sessionKeyRedisTemplate(ReactiveRedisConnectionFactory factory) {
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext
+                .<String, byte[]>newSerializationContext(new StringRedisSerializer())
+                .value(RedisSerializer.byteArray())
+                .build();
+        return new ReactiveRedisTemplate<>(factory, context);
+    }
 }
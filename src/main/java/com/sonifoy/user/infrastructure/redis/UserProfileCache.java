@@ -0,0 +1,161 @@
+package com.sonifoy.user.infrastructure.redis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sonifoy.user.domain.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache of mapped {@link User} profiles keyed by email: a bounded local
+ * LRU in front of Redis. Writes and evictions are broadcast over Redis pub/sub so
+ * other instances drop their local copies.
+ */
+@Slf4j
+@Component
+public class UserProfileCache {
+
+    private static final String KEY_PREFIX = "user:profile:";
+    private static final String INVALIDATION_CHANNEL = "user:profile:invalidate";
+    private static final char MESSAGE_SEPARATOR = '|';
+
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, User> localCache;
+    private final Duration redisTtl;
+    private final String instanceId = UUID.randomUUID().toString();
+    private Disposable invalidationSubscription;
+
+    public UserProfileCache(
+            @Qualifier("reactiveRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${user.profile-cache.max-size:10000}") long maxSize,
+            @Value("${user.profile-cache.local-ttl-seconds:60}") long localTtlSeconds,
+            @Value("${user.profile-cache.redis-ttl-seconds:600}") long redisTtlSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .recordStats()
+                .build();
+        this.redisTtl = Duration.ofSeconds(redisTtlSeconds);
+    }
+
+    @PostConstruct
+    public void subscribeToInvalidations() {
+        invalidationSubscription = redisTemplate.listenToChannel(INVALIDATION_CHANNEL)
+                .map(ReactiveSubscription.Message::getMessage)
+                .doOnError(e -> log.warn("Profile cache invalidation listener failed: {}", e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(this::onInvalidation);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (invalidationSubscription != null) {
+            invalidationSubscription.dispose();
+        }
+    }
+
+    /**
+     * Returns the cached profile, falling back to Redis and then to {@code loader}.
+     * Redis failures degrade to the loader instead of failing the read.
+     */
+    public Mono<User> get(String email, Supplier<Mono<User>> loader) {
+        return Mono.defer(() -> {
+            User local = localCache.getIfPresent(email);
+            if (local != null) {
+                return Mono.just(local);
+            }
+            return redisTemplate.opsForValue().get(KEY_PREFIX + email)
+                    .map(this::deserialize)
+                    .onErrorResume(e -> {
+                        log.warn("Profile cache read failed for {}: {}", email, e.getMessage());
+                        return Mono.empty();
+                    })
+                    .switchIfEmpty(Mono.defer(() -> loader.get()
+                            .flatMap(user -> writeRedis(email, user).thenReturn(user))))
+                    .doOnNext(user -> localCache.put(email, user));
+        });
+    }
+
+    /**
+     * Returns the locally cached profile without touching Redis or the cache statistics.
+     */
+    public User peek(String email) {
+        return localCache.asMap().get(email);
+    }
+
+    public Mono<Void> put(User user) {
+        return writeRedis(user.getEmail(), user)
+                .then(publishInvalidation(user.getEmail()))
+                .doOnSuccess(v -> localCache.put(user.getEmail(), user));
+    }
+
+    public Mono<Void> evict(String email) {
+        localCache.invalidate(email);
+        return redisTemplate.opsForValue().delete(KEY_PREFIX + email)
+                .onErrorResume(e -> {
+                    log.warn("Profile cache eviction failed for {}: {}", email, e.getMessage());
+                    return Mono.just(false);
+                })
+                .then(publishInvalidation(email));
+    }
+
+    public long hitCount() {
+        return localCache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return localCache.stats().missCount();
+    }
+
+    private Mono<Void> writeRedis(String email, User user) {
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(user))
+                .flatMap(json -> redisTemplate.opsForValue().set(KEY_PREFIX + email, json, redisTtl))
+                .onErrorResume(e -> {
+                    log.warn("Profile cache write failed for {}: {}", email, e.getMessage());
+                    return Mono.just(false);
+                })
+                .then();
+    }
+
+    private Mono<Void> publishInvalidation(String email) {
+        return redisTemplate.convertAndSend(INVALIDATION_CHANNEL, instanceId + MESSAGE_SEPARATOR + email)
+                .onErrorResume(e -> {
+                    log.warn("Profile cache invalidation publish failed for {}: {}", email, e.getMessage());
+                    return Mono.just(0L);
+                })
+                .then();
+    }
+
+    private void onInvalidation(String message) {
+        int separator = message.indexOf(MESSAGE_SEPARATOR);
+        if (separator < 0 || !message.regionMatches(0, instanceId, 0, separator)) {
+            localCache.invalidate(message.substring(separator + 1));
+        }
+    }
+
+    private User deserialize(String json) {
+        try {
+            return objectMapper.readValue(json, User.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable cached profile", e);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.sonifoy.user.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * In-process near-cache in front of {@link RedisSessionKeyStore}.
+ * Removals are broadcast over Redis pub/sub so every node drops the key.
+ * <p>
+ * Keys deleted by other services or expired by Redis are dropped through keyspace
+ * notifications for {@code session:key:*}, which need {@code notify-keyspace-events}
+ * to include {@code Kgx} on the server. Without them, an entry loaded from Redis is
+ * still never kept past the key's remaining TTL.
+ */
+@Slf4j
+@Service
+@Primary
+public class CachingSessionKeyStore implements SessionKeyStore {
+
+    static final String INVALIDATION_CHANNEL = "session:key:invalidate";
+    static final String KEYSPACE_PATTERN = "__keyspace@*__:" + RedisSessionKeyStore.KEY_PREFIX + "*";
+
+    private final RedisSessionKeyStore delegate;
+    private final ReactiveRedisTemplate<String, String> redisTemplate;
+    private final Cache<String, CachedKey> cache;
+    private final Duration ttl;
+    private Disposable invalidationSubscription;
+    private Disposable keyspaceSubscription;
+
+    public CachingSessionKeyStore(
+            RedisSessionKeyStore delegate,
+            @Qualifier("reactiveRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate,
+            @Value("${session.key-cache.max-size:10000}") long maxSize,
+            @Value("${session.key-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedKey>() {
+                    @Override
+                    public long expireAfterCreate(String sessionId, CachedKey value, long currentTime) {
+                        return value.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String sessionId, CachedKey value, long currentTime,
+                            long currentDuration) {
+                        return value.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String sessionId, CachedKey value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @PostConstruct
+    public void subscribeToInvalidations() {
+        invalidationSubscription = redisTemplate.listenToChannel(INVALIDATION_CHANNEL)
+                .map(ReactiveSubscription.Message::getMessage)
+                .doOnError(e -> log.warn("Session key invalidation listener failed: {}", e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(cache::invalidate);
+        // The channel names the key; the message is the event, and any change means the
+        // cached copy can no longer be trusted.
+        keyspaceSubscription = redisTemplate.listenToPattern(KEYSPACE_PATTERN)
+                .map(ReactiveSubscription.Message::getChannel)
+                .map(channel -> channel.substring(channel.indexOf(RedisSessionKeyStore.KEY_PREFIX)
+                        + RedisSessionKeyStore.KEY_PREFIX.length()))
+                .doOnError(e -> log.warn("Session key keyspace listener failed: {}", e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(cache::invalidate);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (invalidationSubscription != null) {
+            invalidationSubscription.dispose();
+        }
+        if (keyspaceSubscription != null) {
+            keyspaceSubscription.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Void> saveKey(String sessionId, byte[] key) {
+        return delegate.saveKey(sessionId, key)
+                .doOnSuccess(v -> cache.put(sessionId, new CachedKey(key, ttl)));
+    }
+
+    @Override
+    public Mono<Void> indexSession(String sessionId, String userId) {
+        return delegate.indexSession(sessionId, userId);
+    }
+
+    @Override
+    public Mono<byte[]> getKey(String sessionId) {
+        return Mono.defer(() -> {
+            CachedKey cached = cache.getIfPresent(sessionId);
+            if (cached != null) {
+                return Mono.just(cached.key());
+            }
+            // Both reads go out together on the shared connection
+            return Mono.zip(delegate.getKey(sessionId), delegate.getKeyTtl(sessionId).defaultIfEmpty(ttl))
+                    .map(loaded -> {
+                        Duration remaining = loaded.getT2().compareTo(ttl) < 0 ? loaded.getT2() : ttl;
+                        cache.put(sessionId, new CachedKey(loaded.getT1(), remaining));
+                        return loaded.getT1();
+                    });
+        });
+    }
+
+    @Override
+    public Mono<Void> removeKey(String sessionId) {
+        return delegate.removeKey(sessionId)
+                .doOnSuccess(v -> cache.invalidate(sessionId))
+                .then(redisTemplate.convertAndSend(INVALIDATION_CHANNEL, sessionId))
+                .then();
+    }
+
+    @Override
+    public Mono<List<String>> removeAllForUser(String userId) {
+        return delegate.removeAllForUser(userId)
+                .flatMap(sessionIds -> {
+                    sessionIds.forEach(cache::invalidate);
+                    return Flux.fromIterable(sessionIds)
+                            .flatMap(sessionId -> redisTemplate.convertAndSend(INVALIDATION_CHANNEL, sessionId))
+                            .then(Mono.just(sessionIds));
+                });
+    }
+
+    public long hitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long missCount() {
+        return cache.stats().missCount();
+    }
+
+    private record CachedKey(byte[] key, Duration ttl) {
+    }
+}
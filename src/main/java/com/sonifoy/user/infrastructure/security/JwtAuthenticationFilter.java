@@ -1,10 +1,9 @@
 package com.sonifoy.user.infrastructure.security;
 
-import com.sonifoy.user.infrastructure.adapter.out.persistence.UserRepository;
+import com.sonifoy.user.infrastructure.metrics.PipelineMetrics;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
@@ -12,14 +11,13 @@ import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
-import java.util.stream.Collectors;
-
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter implements WebFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final PipelineMetrics metrics;
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
@@ -31,22 +29,18 @@ public class JwtAuthenticationFilter implements WebFilter {
 
         String token = authHeader.substring(7);
         try {
-            String userEmail = jwtService.extractUsername(token);
+            String userEmail = metrics.record(PipelineMetrics.JWT_STAGE, () -> jwtService.validateToken(token))
+                    .getSubject();
             if (userEmail != null) {
-                return userRepository.findByEmail(userEmail)
-                        .flatMap(user -> {
-                            if (jwtService.isTokenValid(token, user.getEmail())) {
-                                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                                        user.getEmail(),
-                                        null,
-                                        user.getRoles().stream()
-                                                .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
-                                                .collect(Collectors.toList()));
-
-                                return chain.filter(exchange)
-                                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
-                            }
-                            return chain.filter(exchange);
+                return principalCache.getAuthorities(userEmail)
+                        .flatMap(authorities -> {
+                            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                                    userEmail,
+                                    null,
+                                    authorities);
+
+                            return chain.filter(exchange)
+                                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth));
                         });
             }
         } catch (Exception e) {
@@ -1,27 +1,99 @@
 package com.sonifoy.user.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    // Upper bound for tokens that carry no exp claim
+    private static final long NO_EXPIRATION_TTL_NANOS = Duration.ofMinutes(5).toNanos();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     @Value("${jwt.secret:default_military_grade_secret_key_must_be_minimum_256_bits_long}")
     private String secret;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
     private Key key;
+    private JwtParser parser;
+    private Cache<ByteBuffer, Claims> verifiedTokens;
 
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<ByteBuffer, Claims>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer digest, Claims claims, long currentTime) {
+                        Date expiration = claims.getExpiration();
+                        if (expiration == null) {
+                            return NO_EXPIRATION_TTL_NANOS;
+                        }
+                        long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer digest, Claims claims, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer digest, Claims claims, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Verifies the token signature and expiration once and returns its claims.
+     * Already verified tokens are served from a cache until their exp.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims validateToken(String token) {
+        ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+        Claims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        verifiedTokens.put(digest, claims);
+        return claims;
     }
 
     public String extractUsername(String token) {
@@ -29,24 +101,16 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = validateToken(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
     public boolean isTokenValid(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        final Claims claims = validateToken(token);
+        return claims.getSubject().equals(username) && !isTokenExpired(claims);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration() != null && claims.getExpiration().before(new Date());
     }
 }
@@ -0,0 +1,128 @@
+package com.sonifoy.user.infrastructure.security;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@link PasswordEncoder} work on a dedicated, bounded pool so BCrypt never
+ * blocks a Netty event loop. When the queue is full callers get 503 immediately
+ * instead of piling up.
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder upgraded = new LongAdder();
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public Mono<String> encode(CharSequence rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Encodes the password that replaces {@code previousHash} once the caller has
+     * verified it. The new hash uses the current cost, so a previous hash made at a
+     * lower cost is upgraded by the replacement and counted as such.
+     */
+    public Mono<String> encodeReplacing(CharSequence rawPassword, String previousHash) {
+        return submit(() -> {
+            if (passwordEncoder.upgradeEncoding(previousHash)) {
+                upgraded.increment();
+            }
+            return passwordEncoder.encode(rawPassword);
+        });
+    }
+
+    private <T> Mono<T> submit(Supplier<T> task) {
+        return Mono.create(sink -> {
+            long submittedAt = System.nanoTime();
+            try {
+                executor.execute(() -> {
+                    long startedAt = System.nanoTime();
+                    queueNanos.add(startedAt - submittedAt);
+                    try {
+                        sink.success(task.get());
+                    } catch (Exception e) {
+                        sink.error(e);
+                    } finally {
+                        hashNanos.add(System.nanoTime() - startedAt);
+                        completed.increment();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                log.warn("Password hashing queue full ({} queued), rejecting request", executor.getQueue().size());
+                sink.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Server busy, retry later"));
+            }
+        });
+    }
+
+    public long completedCount() {
+        return completed.sum();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public long totalQueueNanos() {
+        return queueNanos.sum();
+    }
+
+    public long totalHashNanos() {
+        return hashNanos.sum();
+    }
+
+    public long upgradedCount() {
+        return upgraded.sum();
+    }
+
+    public int queueSize() {
+        return executor.getQueue().size();
+    }
+}
@@ -0,0 +1,119 @@
+package com.sonifoy.user.infrastructure.security;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Codings applied to a payload before it is encrypted. Ciphertext does not compress,
+ * so this is the only point where compression can still pay off. Compressed length
+ * leaks information about the plain text (BREACH/CRIME), so only responses that do
+ * not mix secrets with client-controlled data may be compressed.
+ */
+public enum PayloadCompression {
+
+    GZIP("gzip") {
+        @Override
+        OutputStream compressing(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out);
+        }
+
+        @Override
+        InputStream decompressing(InputStream in) throws IOException {
+            return new GZIPInputStream(in);
+        }
+    },
+    DEFLATE("deflate") {
+        @Override
+        OutputStream compressing(OutputStream out) {
+            return new DeflaterOutputStream(out);
+        }
+
+        @Override
+        InputStream decompressing(InputStream in) {
+            return new InflaterInputStream(in);
+        }
+    };
+
+    private final String token;
+
+    PayloadCompression(String token) {
+        this.token = token;
+    }
+
+    public String token() {
+        return token;
+    }
+
+    abstract OutputStream compressing(OutputStream out) throws IOException;
+
+    abstract InputStream decompressing(InputStream in) throws IOException;
+
+    public byte[] compress(InputStream plainText, int sizeHint) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, sizeHint / 4));
+        try (OutputStream out = compressing(compressed)) {
+            plainText.transferTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Inflates {@code compressed}, failing with {@link PayloadTooLargeException} once
+     * more than {@code limit} bytes come out so a small payload cannot expand unbounded.
+     */
+    public byte[] decompress(byte[] compressed, int limit) throws IOException {
+        try (InputStream in = decompressing(new ByteArrayInputStream(compressed))) {
+            byte[] plainText = in.readNBytes(limit);
+            if (in.read() != -1) {
+                throw new PayloadTooLargeException();
+            }
+            return plainText;
+        }
+    }
+
+    /**
+     * Returns the coding named by {@code token}, or null when it is absent or unsupported.
+     */
+    public static PayloadCompression fromToken(String token) {
+        if (token != null) {
+            for (PayloadCompression compression : values()) {
+                if (compression.token.equalsIgnoreCase(token.trim())) {
+                    return compression;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Picks the first supported coding from a comma-separated list in client order.
+     */
+    public static PayloadCompression negotiate(String accepted) {
+        if (accepted != null) {
+            for (String token : accepted.split(",")) {
+                PayloadCompression compression = fromToken(token.split(";", 2)[0]);
+                if (compression != null) {
+                    return compression;
+                }
+            }
+        }
+        return null;
+    }
+
+    static final class PayloadTooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        PayloadTooLargeException() {
+            super("Decompressed payload too large");
+        }
+    }
+}
@@ -1,30 +1,67 @@
 package com.sonifoy.user.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sonifoy.user.infrastructure.metrics.PipelineMetrics;
 import com.sonifoy.user.infrastructure.security.crypto.CryptoService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Filter that transparently decrypts incoming request bodies and encrypts
  * outgoing responses
  * using dynamic session keys fetched from Redis.
+ * <p>
+ * Two wire formats are supported: the text format {@code base64(iv):base64(cipherText)}
+ * sent as {@code text/plain}, and a binary format {@code iv || cipherText || tag} sent as
+ * {@code application/octet-stream}. Request bodies are decoded according to their
+ * Content-Type; responses use the binary format when the client sends
+ * {@code X-Encryption-Mode: binary}. Streamed NDJSON responses are encrypted line by
+ * line in the text format and sent as {@code text/plain}, one ciphertext per line.
+ * <p>
+ * Payloads can be compressed before encryption. A request body compressed by the client
+ * names its coding in {@code X-Encrypted-Content-Encoding}; a client that lists
+ * {@code gzip} or {@code deflate} in {@code X-Accept-Encrypted-Encoding} gets responses
+ * of at least {@code encryption.compression.min-size} bytes compressed, with the coding
+ * named in {@code X-Encrypted-Content-Encoding}. Response compression is limited to the
+ * routes in {@code encryption.compression.paths}: compressed length reveals plain text
+ * when a response mixes secrets with client-controlled input, so routes returning tokens
+ * or other secrets must not be listed. The defaults only cover the activity history
+ * routes.
  */
 @Component
 @org.springframework.core.annotation.Order(-10)
@@ -33,9 +70,40 @@ public class PayloadEncryptionFilter implements WebFilter {
 
     private final CryptoService cryptoService;
     private final SessionKeyStore sessionKeyStore;
+    private final PipelineMetrics metrics;
     private static final String SESSION_ID_HEADER = "X-Session-ID";
+    private static final String ENCRYPTION_MODE_HEADER = "X-Encryption-Mode";
+    private static final String BINARY_MODE = "binary";
+    private static final String CONTENT_ENCODING_HEADER = "X-Encrypted-Content-Encoding";
+    private static final String ACCEPT_ENCODING_HEADER = "X-Accept-Encrypted-Encoding";
     private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(PayloadEncryptionFilter.class);
 
+    @Value("${encryption.max-body-size:10485760}")
+    private int maxBodySize;
+
+    @Value("${encryption.compression.min-size:1024}")
+    private int compressionMinSize;
+
+    @Value("${encryption.compression.paths:/api/v1/users/activity,/api/v1/users/activity/**}")
+    private List<String> compressionPaths;
+
+    private List<PathPattern> compressiblePaths = List.of();
+
+    private final LongAdder encryptedResponses = new LongAdder();
+    private final LongAdder plainResponseBytes = new LongAdder();
+    private final LongAdder allocatedResponseBytes = new LongAdder();
+    private final LongAdder compressedResponses = new LongAdder();
+    // Re-indexed hourly so the per-user set outlives active sessions
+    private final Cache<String, String> indexedSessions = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    @PostConstruct
+    void parseCompressionPaths() {
+        compressiblePaths = compressionPaths.stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
         String path = exchange.getRequest().getURI().getPath();
@@ -49,10 +117,11 @@ public class PayloadEncryptionFilter implements WebFilter {
         }
 
         // 2. Skip specific paths WITHOUT session check (Critical for handshake and
-        // auth)
+        // auth). The batch lookup is called service to service, which never performs
+        // the handshake; it is restricted to the SERVICE role in SecurityConfig.
         if (path.contains("/handshake") || path.contains("/actuator") ||
                 path.contains("/maintenance") || path.contains("/exploration") ||
-                path.contains("/ranking") || path.contains("/auth")) {
+                path.contains("/ranking") || path.contains("/auth") || path.endsWith("/users/batch")) {
             log.debug("Skipping encryption for path: {}", path);
             return chain.filter(exchange);
         }
@@ -63,11 +132,12 @@ public class PayloadEncryptionFilter implements WebFilter {
             return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing X-Session-ID"));
         }
 
-        return sessionKeyStore.getKey(sessionId)
+        return metrics.time(PipelineMetrics.SESSION_KEY_STAGE, sessionKeyStore.getKey(sessionId))
                 .switchIfEmpty(Mono.defer(() -> {
                     log.error("Unauthorized request to {}: Session ID {} not found or expired", path, sessionId);
                     return Mono.error(new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Session expired"));
                 }))
+                .flatMap(sessionKey -> indexSession(sessionId).thenReturn(sessionKey))
                 .flatMap(sessionKey -> {
                     log.debug("Session key found for ID: {}. Proceeding with request to {}", sessionId, path);
                     ServerHttpResponse mutatedResponse = decorateResponse(exchange, sessionKey, sessionId);
@@ -81,31 +151,67 @@ public class PayloadEncryptionFilter implements WebFilter {
                 });
     }
 
+    /**
+     * Adds the session to its user's session index the first time it is seen here with
+     * an authenticated principal, so a password change can revoke it. Bindings already
+     * written are remembered locally to keep Redis off the per-request path.
+     */
+    private Mono<Void> indexSession(String sessionId) {
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(SecurityContext::getAuthentication)
+                .filter(Authentication::isAuthenticated)
+                .map(Authentication::getName)
+                .filter(userId -> !userId.equals(indexedSessions.getIfPresent(sessionId)))
+                .flatMap(userId -> sessionKeyStore.indexSession(sessionId, userId)
+                        .doOnSuccess(v -> indexedSessions.put(sessionId, userId))
+                        .onErrorResume(e -> {
+                            log.warn("Could not index session {}: {}", sessionId, e.getMessage());
+                            return Mono.empty();
+                        }));
+    }
+
     private boolean isDecryptionRequired(ServerWebExchange exchange) {
         String method = exchange.getRequest().getMethod().name();
         MediaType contentType = exchange.getRequest().getHeaders().getContentType();
         return (method.equals("POST") || method.equals("PUT") || method.equals("PATCH")) &&
-                contentType != null && contentType.isCompatibleWith(MediaType.TEXT_PLAIN);
+                contentType != null && (contentType.isCompatibleWith(MediaType.TEXT_PLAIN) ||
+                        contentType.isCompatibleWith(MediaType.APPLICATION_OCTET_STREAM));
+    }
+
+    private boolean isCompressible(ServerWebExchange exchange) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        return compressiblePaths.stream().anyMatch(pattern -> pattern.matches(path));
+    }
+
+    private boolean isBinaryResponseRequested(ServerWebExchange exchange) {
+        return BINARY_MODE.equalsIgnoreCase(exchange.getRequest().getHeaders().getFirst(ENCRYPTION_MODE_HEADER));
     }
 
     private Mono<Void> decryptRequestBody(ServerWebExchange exchange, WebFilterChain chain, byte[] sessionKey,
             String sessionId) {
-        return DataBufferUtils.join(exchange.getRequest().getBody())
+        MediaType contentType = exchange.getRequest().getHeaders().getContentType();
+        boolean binary = contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_OCTET_STREAM);
+        String coding = exchange.getRequest().getHeaders().getFirst(CONTENT_ENCODING_HEADER);
+        PayloadCompression compression = PayloadCompression.fromToken(coding);
+        if (coding != null && compression == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                    "Unsupported payload encoding: " + coding));
+        }
+        return DataBufferUtils.join(exchange.getRequest().getBody(), maxBodySize)
+                .onErrorMap(DataBufferLimitException.class,
+                        e -> new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Encrypted payload too large"))
                 .flatMap(dataBuffer -> {
                     byte[] bytes = new byte[dataBuffer.readableByteCount()];
                     dataBuffer.read(bytes);
                     DataBufferUtils.release(dataBuffer);
 
-                    String bodyStr = new String(bytes, StandardCharsets.UTF_8).trim();
-                    // Remove potential surrounding quotes from Dio/HttpClient
-                    if (bodyStr.startsWith("\"") && bodyStr.endsWith("\"")) {
-                        bodyStr = bodyStr.substring(1, bodyStr.length() - 1);
-                    }
-
                     try {
-                        String decryptedJson = cryptoService.decrypt(bodyStr, sessionKey);
-                        log.info("[PayloadEncryptionFilter] Decrypted body ({} chars)", decryptedJson.length());
-                        byte[] decryptedBytes = decryptedJson.getBytes(StandardCharsets.UTF_8);
+                        byte[] decrypted = metrics.record(PipelineMetrics.DECRYPT_STAGE, () -> binary
+                                ? cryptoService.decrypt(bytes, sessionKey)
+                                : decryptText(bytes, sessionKey));
+                        byte[] decryptedBytes = compression != null ? decompress(compression, decrypted) : decrypted;
+                        log.info("[PayloadEncryptionFilter] Decrypted {} body ({} bytes{})", binary ? "binary" : "text",
+                                decryptedBytes.length, compression != null ? ", " + compression.token() : "");
 
                         // 1. Create a request with updated headers and body
                         ServerHttpRequest mutatedRequest = new ServerHttpRequestDecorator(exchange.getRequest()) {
@@ -113,6 +219,7 @@ public class PayloadEncryptionFilter implements WebFilter {
                             public HttpHeaders getHeaders() {
                                 HttpHeaders headers = new HttpHeaders();
                                 headers.putAll(super.getHeaders());
+                                headers.remove(CONTENT_ENCODING_HEADER);
                                 headers.setContentType(MediaType.APPLICATION_JSON);
                                 headers.setContentLength(decryptedBytes.length);
                                 return headers;
@@ -127,6 +234,8 @@ public class PayloadEncryptionFilter implements WebFilter {
                         // 2. Build final exchange and process chain
                         return chain.filter(exchange.mutate().request(mutatedRequest).build())
                                 .then(Mono.just(true)); // Emit something to prevent switchIfEmpty
+                    } catch (ResponseStatusException e) {
+                        return Mono.error(e);
                     } catch (Exception e) {
                         log.error("Decryption failed for session: {}", sessionId, e);
                         return Mono.error(
@@ -137,7 +246,44 @@ public class PayloadEncryptionFilter implements WebFilter {
                 .then();
     }
 
+    private byte[] decompress(PayloadCompression compression, byte[] compressed) {
+        try {
+            return metrics.record(PipelineMetrics.DECOMPRESS_STAGE, () -> {
+                try {
+                    return compression.decompress(compressed, maxBodySize);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            if (e.getCause() instanceof PayloadCompression.PayloadTooLargeException) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Decompressed payload too large");
+            }
+            throw e;
+        }
+    }
+
+    private byte[] decryptText(byte[] bytes, byte[] sessionKey) {
+        int start = 0;
+        int end = bytes.length;
+        while (start < end && (bytes[start] & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (bytes[end - 1] & 0xFF) <= ' ') {
+            end--;
+        }
+        // Remove potential surrounding quotes from Dio/HttpClient
+        if (end - start >= 2 && bytes[start] == '"' && bytes[end - 1] == '"') {
+            start++;
+            end--;
+        }
+        return cryptoService.decryptText(bytes, start, end - start, sessionKey);
+    }
+
     private ServerHttpResponse decorateResponse(ServerWebExchange exchange, byte[] sessionKey, String sessionId) {
+        boolean binary = isBinaryResponseRequested(exchange);
+        PayloadCompression acceptedCompression = isCompressible(exchange) ? PayloadCompression.negotiate(
+                exchange.getRequest().getHeaders().getFirst(ACCEPT_ENCODING_HEADER)) : null;
         return new ServerHttpResponseDecorator(exchange.getResponse()) {
             @Override
             public Mono<Void> writeWith(org.reactivestreams.Publisher<? extends DataBuffer> body) {
@@ -153,50 +299,165 @@ public class PayloadEncryptionFilter implements WebFilter {
                 if (contentType != null && (contentType.isCompatibleWith(MediaType.APPLICATION_JSON) ||
                         contentType.isCompatibleWith(new MediaType("application", "json", StandardCharsets.UTF_8)))) {
 
-                    return DataBufferUtils.join(Flux.from(body))
+                    return DataBufferUtils.join(Flux.from(body), maxBodySize)
+                            .onErrorMap(DataBufferLimitException.class, e -> {
+                                log.error("Response for session {} exceeds {} bytes, refusing to send it", sessionId,
+                                        maxBodySize);
+                                return new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                                        "Response too large");
+                            })
                             .flatMap(dataBuffer -> {
                                 if (dataBuffer.readableByteCount() == 0) {
+                                    DataBufferUtils.release(dataBuffer);
                                     getDelegate().getHeaders().setContentLength(0);
                                     return super.writeWith(Mono.empty());
                                 }
-                                byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                                dataBuffer.read(bytes);
-                                DataBufferUtils.release(dataBuffer);
-
-                                try {
-                                    String plainBody = new String(bytes, StandardCharsets.UTF_8);
 
-                                    // Robust check for already encrypted content (IV:Ciphertext)
-                                    // Encrypted strings won't start with { or [ which are JSON markers
-                                    boolean isProbablyJson = plainBody.trim().startsWith("{")
-                                            || plainBody.trim().startsWith("[");
-
-                                    if (!isProbablyJson && plainBody.contains(":")) {
-                                        log.debug(
-                                                "[PayloadEncryptionFilter] Response seems already encrypted, skipping.");
-                                        return super.writeWith(Mono.just(getDelegate().bufferFactory().wrap(bytes)));
-                                    }
-
-                                    log.debug("[PayloadEncryptionFilter] Encrypting JSON response ({} bytes)",
-                                            bytes.length);
-                                    String encrypted = cryptoService.encrypt(plainBody, sessionKey);
-                                    byte[] encryptedBytes = encrypted.getBytes(StandardCharsets.UTF_8);
-
-                                    getHeaders().setContentType(MediaType.TEXT_PLAIN);
-                                    getHeaders().setContentLength(encryptedBytes.length);
+                                // Encrypted strings won't start with { or [ which are JSON markers
+                                if (!isProbablyJson(dataBuffer) && containsByte(dataBuffer, (byte) ':')) {
+                                    log.debug(
+                                            "[PayloadEncryptionFilter] Response seems already encrypted, skipping.");
+                                    return super.writeWith(Mono.just(dataBuffer));
+                                }
 
-                                    return super.writeWith(
-                                            Mono.just(getDelegate().bufferFactory().wrap(encryptedBytes)));
+                                int plainLength = dataBuffer.readableByteCount();
+                                int start = dataBuffer.readPosition();
+                                byte[] compressed = compress(acceptedCompression, dataBuffer);
+                                int inputLength = compressed != null ? compressed.length : plainLength;
+                                int encryptedLength = binary ? cryptoService.sealedLength(inputLength)
+                                        : cryptoService.encryptedLength(inputLength);
+                                DataBuffer encrypted = getDelegate().bufferFactory().allocateBuffer(encryptedLength);
+                                try (InputStream plainText = compressed != null ? new ByteArrayInputStream(compressed)
+                                        : dataBuffer.asInputStream()) {
+                                    log.debug("[PayloadEncryptionFilter] Encrypting JSON response ({} bytes, {}, {})",
+                                            plainLength, binary ? "binary" : "text",
+                                            compressed != null ? acceptedCompression.token() : "uncompressed");
+                                    metrics.record(PipelineMetrics.ENCRYPT_STAGE, () -> {
+                                        if (binary) {
+                                            cryptoService.encryptSealed(plainText, encrypted.asOutputStream(),
+                                                    sessionKey);
+                                        } else {
+                                            cryptoService.encrypt(plainText, encrypted.asOutputStream(), sessionKey);
+                                        }
+                                    });
                                 } catch (Exception e) {
                                     log.error("Encryption failed for session: {}", sessionId, e);
+                                    DataBufferUtils.release(encrypted);
                                     // Fallback: send as is
-                                    return super.writeWith(Mono.just(getDelegate().bufferFactory().wrap(bytes)));
+                                    dataBuffer.readPosition(start);
+                                    return super.writeWith(Mono.just(dataBuffer));
                                 }
+                                DataBufferUtils.release(dataBuffer);
+
+                                encryptedResponses.increment();
+                                plainResponseBytes.add(plainLength);
+                                allocatedResponseBytes.add(encryptedLength);
+                                if (compressed != null) {
+                                    compressedResponses.increment();
+                                    getHeaders().set(CONTENT_ENCODING_HEADER, acceptedCompression.token());
+                                }
+
+                                getHeaders().setContentType(
+                                        binary ? MediaType.APPLICATION_OCTET_STREAM : MediaType.TEXT_PLAIN);
+                                getHeaders().setContentLength(encrypted.readableByteCount());
+                                return super.writeWith(Mono.just(encrypted));
                             })
                             .switchIfEmpty(super.writeWith(body));
                 }
                 return super.writeWith(body);
             }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(
+                    org.reactivestreams.Publisher<? extends org.reactivestreams.Publisher<? extends DataBuffer>> body) {
+                HttpStatus status = (HttpStatus) getStatusCode();
+                MediaType contentType = getHeaders().getContentType();
+                if ((status != null && !status.is2xxSuccessful()) || contentType == null
+                        || !contentType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+                    return super.writeAndFlushWith(body);
+                }
+                // Streaming writers emit one element per buffer; encrypt each line on its own
+                // so the client can decrypt the stream incrementally.
+                getHeaders().setContentType(MediaType.TEXT_PLAIN);
+                return super.writeAndFlushWith(Flux.from(body)
+                        .map(elements -> Flux.from(elements)
+                                .map(element -> encryptLine(element, getDelegate().bufferFactory(), sessionKey))));
+            }
         };
     }
+
+    /**
+     * Compresses the readable bytes of {@code plainText} when the client accepts it and the
+     * payload is large enough. Returns null, leaving the buffer untouched, when compression
+     * is not negotiated or does not make the payload smaller.
+     */
+    private byte[] compress(PayloadCompression compression, DataBuffer plainText) {
+        int length = plainText.readableByteCount();
+        if (compression == null || length < compressionMinSize) {
+            return null;
+        }
+        int start = plainText.readPosition();
+        byte[] compressed = metrics.record(PipelineMetrics.COMPRESS_STAGE,
+                () -> compression.compress(plainText.asInputStream(), length));
+        plainText.readPosition(start);
+        return compressed.length < length ? compressed : null;
+    }
+
+    private DataBuffer encryptLine(DataBuffer element, DataBufferFactory bufferFactory, byte[] sessionKey) {
+        int length = element.readableByteCount();
+        while (length > 0 && element.getByte(element.readPosition() + length - 1) == '\n') {
+            length--;
+        }
+        byte[] plainText = new byte[length];
+        element.read(plainText);
+        DataBufferUtils.release(element);
+
+        DataBuffer line = bufferFactory.allocateBuffer(cryptoService.encryptedLength(length) + 1);
+        metrics.record(PipelineMetrics.ENCRYPT_STAGE,
+                () -> cryptoService.encrypt(new ByteArrayInputStream(plainText), line.asOutputStream(), sessionKey));
+        line.write((byte) '\n');
+
+        encryptedResponses.increment();
+        plainResponseBytes.add(length);
+        allocatedResponseBytes.add(line.capacity());
+        return line;
+    }
+
+    private static boolean isProbablyJson(DataBuffer buffer) {
+        for (int i = buffer.readPosition(); i < buffer.writePosition(); i++) {
+            byte b = buffer.getByte(i);
+            if ((b & 0xFF) > ' ') {
+                return b == '{' || b == '[';
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsByte(DataBuffer buffer, byte value) {
+        for (int i = buffer.readPosition(); i < buffer.writePosition(); i++) {
+            if (buffer.getByte(i) == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long encryptedResponses() {
+        return encryptedResponses.sum();
+    }
+
+    public long compressedResponses() {
+        return compressedResponses.sum();
+    }
+
+    public long plainResponseBytes() {
+        return plainResponseBytes.sum();
+    }
+
+    /**
+     * Bytes allocated from the response buffer factory to hold encrypted bodies.
+     */
+    public long allocatedResponseBytes() {
+        return allocatedResponseBytes.sum();
+    }
 }
@@ -0,0 +1,66 @@
+package com.sonifoy.user.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sonifoy.user.infrastructure.adapter.out.persistence.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short-lived cache of the authorities granted to each user, keyed by email,
+ * so bearer authentication does not need a database read per request.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, List<GrantedAuthority>> cache;
+    private final LongAdder savedLookups = new LongAdder();
+
+    public PrincipalCache(UserRepository userRepository,
+            @Value("${security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${security.principal-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public Mono<List<GrantedAuthority>> getAuthorities(String email) {
+        return Mono.defer(() -> {
+            List<GrantedAuthority> cached = cache.getIfPresent(email);
+            if (cached != null) {
+                savedLookups.increment();
+                return Mono.just(cached);
+            }
+            return userRepository.findByEmail(email)
+                    .map(user -> {
+                        List<GrantedAuthority> authorities = user.getRoles() == null ? List.of()
+                                : user.getRoles().stream()
+                                        .<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+                                        .toList();
+                        cache.put(email, authorities);
+                        return authorities;
+                    });
+        });
+    }
+
+    public void invalidate(String email) {
+        cache.invalidate(email);
+    }
+
+    /**
+     * Number of database lookups avoided by serving authorities from the cache.
+     */
+    public long savedLookups() {
+        return savedLookups.sum();
+    }
+}
@@ -6,37 +6,109 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
 
+/**
+ * {@link #saveKey} stores session keys as raw bytes behind a one-byte format marker,
+ * so reads need no decoding. Values without the marker are Base64 text and are still
+ * accepted. The handshake service issues the keys and still writes Base64, so in
+ * production every read takes that path until it switches to the raw format; until
+ * then the near cache in {@link CachingSessionKeyStore} is what keeps decoding off
+ * the request path.
+ * <p>
+ * Session keys are issued by the handshake outside this service, before the user is
+ * known. Each session is therefore added to a per-user set under
+ * {@code session:user:<email>} when it first carries an authenticated request here
+ * (see {@link PayloadEncryptionFilter}), so those sessions can be revoked without
+ * scanning keys. The set lives as long as the key TTL after its last update.
+ */
 @Service
 public class RedisSessionKeyStore implements SessionKeyStore {
 
+    private final ReactiveRedisTemplate<String, byte[]> keyTemplate;
     private final ReactiveRedisTemplate<String, String> redisTemplate;
 
     public RedisSessionKeyStore(
+            @Qualifier("sessionKeyRedisTemplate") ReactiveRedisTemplate<String, byte[]> keyTemplate,
             @Qualifier("reactiveRedisTemplate") ReactiveRedisTemplate<String, String> redisTemplate) {
+        this.keyTemplate = keyTemplate;
         this.redisTemplate = redisTemplate;
     }
 
-    private static final String KEY_PREFIX = "session:key:";
+    static final String KEY_PREFIX = "session:key:";
+    private static final String USER_SESSIONS_PREFIX = "session:user:";
     private static final Duration KEY_TTL = Duration.ofHours(24);
+    // Never a Base64 character, so raw values cannot be confused with legacy ones
+    private static final byte RAW_FORMAT = 0x01;
 
     public Mono<Void> saveKey(String sessionId, byte[] key) {
-        String encodedKey = Base64.getEncoder().encodeToString(key);
-        return redisTemplate.opsForValue()
-                .set(KEY_PREFIX + sessionId, encodedKey, KEY_TTL)
+        return keyTemplate.opsForValue()
+                .set(KEY_PREFIX + sessionId, encode(key), KEY_TTL)
                 .then();
     }
 
+    /**
+     * Both commands are subscribed together so the shared connection pipelines them
+     * instead of waiting for each reply.
+     */
+    public Mono<Void> indexSession(String sessionId, String userId) {
+        String userSessions = USER_SESSIONS_PREFIX + userId;
+        return Mono.when(
+                redisTemplate.opsForSet().add(userSessions, sessionId),
+                redisTemplate.expire(userSessions, KEY_TTL));
+    }
+
     public Mono<byte[]> getKey(String sessionId) {
-        return redisTemplate.opsForValue()
+        return keyTemplate.opsForValue()
                 .get(KEY_PREFIX + sessionId)
-                .map(encodedKey -> Base64.getDecoder().decode(encodedKey));
+                .map(RedisSessionKeyStore::decode);
+    }
+
+    /**
+     * Remaining lifetime of the key, or empty when it does not exist or never expires.
+     */
+    public Mono<Duration> getKeyTtl(String sessionId) {
+        return keyTemplate.getExpire(KEY_PREFIX + sessionId)
+                .filter(ttl -> !ttl.isNegative() && !ttl.isZero());
     }
 
     public Mono<Void> removeKey(String sessionId) {
-        return redisTemplate.opsForValue()
+        return keyTemplate.opsForValue()
                 .delete(KEY_PREFIX + sessionId)
                 .then();
     }
+
+    /**
+     * Reads the user's session set and deletes every key and the set itself with one
+     * multi-key DEL. Ids of sessions that already expired are harmless to delete.
+     */
+    public Mono<List<String>> removeAllForUser(String userId) {
+        String userSessions = USER_SESSIONS_PREFIX + userId;
+        return redisTemplate.opsForSet().members(userSessions)
+                .collectList()
+                .flatMap(sessionIds -> {
+                    String[] keys = new String[sessionIds.size() + 1];
+                    for (int i = 0; i < sessionIds.size(); i++) {
+                        keys[i] = KEY_PREFIX + sessionIds.get(i);
+                    }
+                    keys[sessionIds.size()] = userSessions;
+                    return redisTemplate.delete(keys).thenReturn(sessionIds);
+                });
+    }
+
+    private static byte[] encode(byte[] key) {
+        byte[] value = new byte[key.length + 1];
+        value[0] = RAW_FORMAT;
+        System.arraycopy(key, 0, value, 1, key.length);
+        return value;
+    }
+
+    private static byte[] decode(byte[] value) {
+        if (value.length > 0 && value[0] == RAW_FORMAT) {
+            return Arrays.copyOfRange(value, 1, value.length);
+        }
+        return Base64.getDecoder().decode(value);
+    }
 }
@@ -2,10 +2,23 @@ package com.sonifoy.user.infrastructure.security;
 
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+
 public interface SessionKeyStore {
     Mono<Void> saveKey(String sessionId, byte[] key);
 
+    /**
+     * Records the session under {@code userId} so it can be revoked by
+     * {@link #removeAllForUser(String)}. Idempotent.
+     */
+    Mono<Void> indexSession(String sessionId, String userId);
+
     Mono<byte[]> getKey(String sessionId);
 
     Mono<Void> removeKey(String sessionId);
+
+    /**
+     * Removes every session recorded for {@code userId} and returns the removed session ids.
+     */
+    Mono<List<String>> removeAllForUser(String userId);
 }
@@ -1,17 +1,27 @@
 package com.sonifoy.user.infrastructure.security.crypto;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.crypto.Cipher;
-import javax.crypto.SecretKey;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.NoSuchPaddingException;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.security.Security;
 import java.security.MessageDigest;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Arrays;
 
@@ -23,6 +33,24 @@ public class CryptoService {
     private static final String ALGORITHM = "AES/GCM/NoPadding";
     private static final int GCM_TAG_LENGTH = 128;
     private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_BYTES = GCM_TAG_LENGTH / 8;
+
+    // SecureRandom is thread-safe; one instance is seeded once and shared by all callers
+    private static final SecureRandom IV_SOURCE = new SecureRandom();
+
+    // Cipher instances are not thread-safe but can be re-initialized, so each thread keeps one
+    private static final ThreadLocal<Cipher> CIPHERS = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Cache<ByteBuffer, SecretKeySpec> keySpecs = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
 
     public CryptoService() {
         Security.addProvider(new BouncyCastleProvider());
@@ -30,21 +58,8 @@ public class CryptoService {
 
     public String decrypt(String encryptedData, byte[] keyBytes) {
         try {
-            SecretKey key = new SecretKeySpec(Arrays.copyOf(keyBytes, 32), "AES");
-            String[] parts = encryptedData.split(":");
-            if (parts.length != 2) {
-                throw new IllegalArgumentException("Invalid encrypted format");
-            }
-
-            byte[] iv = Base64.getDecoder().decode(parts[0]);
-            byte[] cipherText = Base64.getDecoder().decode(parts[1]);
-
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.DECRYPT_MODE, key, spec);
-
-            byte[] plainText = cipher.doFinal(cipherText);
-            return new String(plainText, StandardCharsets.UTF_8);
+            byte[] text = encryptedData.getBytes(StandardCharsets.ISO_8859_1);
+            return new String(decryptText(text, 0, text.length, keyBytes), StandardCharsets.UTF_8);
         } catch (Exception e) {
             log.error("Decryption failed for data length: {}", encryptedData != null ? encryptedData.length() : "null",
                     e);
@@ -52,16 +67,70 @@ public class CryptoService {
         }
     }
 
-    public String encrypt(String plainText, byte[] keyBytes) {
+    /**
+     * Decrypts the {@code base64(iv):base64(cipherText)} text found in
+     * {@code text[offset, offset + length)} and returns the plain text bytes.
+     */
+    public byte[] decryptText(byte[] text, int offset, int length, byte[] keyBytes) {
+        int separator = -1;
+        for (int i = offset; i < offset + length; i++) {
+            if (text[i] == ':') {
+                separator = i;
+                break;
+            }
+        }
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid encrypted format");
+        }
+
+        Base64.Decoder decoder = Base64.getDecoder();
+        ByteBuffer iv = decoder.decode(ByteBuffer.wrap(text, offset, separator - offset));
+        ByteBuffer cipherText = decoder.decode(ByteBuffer.wrap(text, separator + 1, offset + length - separator - 1));
         try {
-            SecretKey key = new SecretKeySpec(Arrays.copyOf(keyBytes, 32), "AES");
-            byte[] iv = new byte[GCM_IV_LENGTH];
-            new java.security.SecureRandom().nextBytes(iv);
+            Cipher cipher = initCipher(Cipher.DECRYPT_MODE, keyBytes, iv.array(), iv.arrayOffset(), iv.remaining());
+            return cipher.doFinal(cipherText.array(), cipherText.arrayOffset(), cipherText.remaining());
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Decryption failed", e);
+        }
+    }
 
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.ENCRYPT_MODE, key, spec);
+    /**
+     * Decrypts {@code iv || cipherText || tag} and returns the plain text bytes.
+     */
+    public byte[] decrypt(byte[] sealed, byte[] keyBytes) {
+        if (sealed.length < GCM_IV_LENGTH + GCM_TAG_BYTES) {
+            throw new IllegalArgumentException("Invalid encrypted format");
+        }
+        try {
+            Cipher cipher = initCipher(Cipher.DECRYPT_MODE, keyBytes, sealed, 0, GCM_IV_LENGTH);
+            return cipher.doFinal(sealed, GCM_IV_LENGTH, sealed.length - GCM_IV_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Decryption failed", e);
+        }
+    }
+
+    /**
+     * Decrypts {@code iv || cipherText || tag} from {@code sealed} into {@code out}
+     * and returns the number of plain text bytes written.
+     */
+    public int decrypt(ByteBuffer sealed, ByteBuffer out, byte[] keyBytes) {
+        if (sealed.remaining() < GCM_IV_LENGTH + GCM_TAG_BYTES) {
+            throw new IllegalArgumentException("Invalid encrypted format");
+        }
+        try {
+            byte[] iv = new byte[GCM_IV_LENGTH];
+            sealed.get(iv);
+            Cipher cipher = initCipher(Cipher.DECRYPT_MODE, keyBytes, iv, 0, GCM_IV_LENGTH);
+            return cipher.doFinal(sealed, out);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Decryption failed", e);
+        }
+    }
 
+    public String encrypt(String plainText, byte[] keyBytes) {
+        try {
+            byte[] iv = nextIv();
+            Cipher cipher = initCipher(Cipher.ENCRYPT_MODE, keyBytes, iv, 0, GCM_IV_LENGTH);
             byte[] cipherText = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
 
             return Base64.getEncoder().encodeToString(iv) + ":" + Base64.getEncoder().encodeToString(cipherText);
@@ -70,6 +139,119 @@ public class CryptoService {
         }
     }
 
+    /**
+     * Encrypts {@code plainText} and returns {@code iv || cipherText || tag}.
+     */
+    public byte[] encrypt(byte[] plainText, byte[] keyBytes) {
+        byte[] sealed = new byte[sealedLength(plainText.length)];
+        try {
+            System.arraycopy(nextIv(), 0, sealed, 0, GCM_IV_LENGTH);
+            Cipher cipher = initCipher(Cipher.ENCRYPT_MODE, keyBytes, sealed, 0, GCM_IV_LENGTH);
+            cipher.doFinal(plainText, 0, plainText.length, sealed, GCM_IV_LENGTH);
+            return sealed;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Encryption failed", e);
+        }
+    }
+
+    /**
+     * Encrypts the remaining bytes of {@code plainText} and writes
+     * {@code iv || cipherText || tag} to {@code out}. Returns the number of
+     * bytes written.
+     */
+    public int encrypt(ByteBuffer plainText, ByteBuffer out, byte[] keyBytes) {
+        try {
+            byte[] iv = nextIv();
+            Cipher cipher = initCipher(Cipher.ENCRYPT_MODE, keyBytes, iv, 0, GCM_IV_LENGTH);
+            out.put(iv);
+            return GCM_IV_LENGTH + cipher.doFinal(plainText, out);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Encryption failed", e);
+        }
+    }
+
+    /**
+     * Streaming variant of {@link #encrypt(String, byte[])}: reads the plain text
+     * from {@code plainText} and writes {@code base64(iv):base64(cipherText)} to
+     * {@code out} without materializing the payload as a String.
+     */
+    public void encrypt(InputStream plainText, OutputStream out, byte[] keyBytes) {
+        try {
+            byte[] iv = nextIv();
+            Cipher cipher = initCipher(Cipher.ENCRYPT_MODE, keyBytes, iv, 0, GCM_IV_LENGTH);
+
+            out.write(Base64.getEncoder().encode(iv));
+            out.write(':');
+            try (OutputStream cipherOut = new CipherOutputStream(Base64.getEncoder().wrap(out), cipher)) {
+                plainText.transferTo(cipherOut);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Encryption failed", e);
+        }
+    }
+
+    /**
+     * Streaming variant of {@link #encrypt(byte[], byte[])}: reads the plain text
+     * from {@code plainText} and writes {@code iv || cipherText || tag} to {@code out}.
+     */
+    public void encryptSealed(InputStream plainText, OutputStream out, byte[] keyBytes) {
+        try {
+            byte[] iv = nextIv();
+            Cipher cipher = initCipher(Cipher.ENCRYPT_MODE, keyBytes, iv, 0, GCM_IV_LENGTH);
+
+            out.write(iv);
+            try (OutputStream cipherOut = new CipherOutputStream(out, cipher)) {
+                plainText.transferTo(cipherOut);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Encryption failed", e);
+        }
+    }
+
+    /**
+     * Length of the text produced by {@link #encrypt(InputStream, OutputStream, byte[])}
+     * for a plain text of {@code plainTextLength} bytes.
+     */
+    public int encryptedLength(int plainTextLength) {
+        return base64Length(GCM_IV_LENGTH) + 1 + base64Length(plainTextLength + GCM_TAG_BYTES);
+    }
+
+    /**
+     * Length of {@code iv || cipherText || tag} for a plain text of
+     * {@code plainTextLength} bytes.
+     */
+    public int sealedLength(int plainTextLength) {
+        return GCM_IV_LENGTH + plainTextLength + GCM_TAG_BYTES;
+    }
+
+    private static int base64Length(int length) {
+        return 4 * ((length + 2) / 3);
+    }
+
+    private static byte[] nextIv() {
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        IV_SOURCE.nextBytes(iv);
+        return iv;
+    }
+
+    private Cipher initCipher(int mode, byte[] keyBytes, byte[] iv, int ivOffset, int ivLength)
+            throws GeneralSecurityException {
+        Cipher cipher = CIPHERS.get();
+        cipher.init(mode, keySpec(keyBytes), new GCMParameterSpec(GCM_TAG_LENGTH, iv, ivOffset, ivLength));
+        return cipher;
+    }
+
+    private SecretKeySpec keySpec(byte[] keyBytes) {
+        SecretKeySpec cached = keySpecs.getIfPresent(ByteBuffer.wrap(keyBytes));
+        if (cached != null) {
+            return cached;
+        }
+        // The cache key is compared by content, so it must own its bytes: wrapping the
+        // caller's array would retain it and let a later mutation corrupt the entry.
+        byte[] ownedKey = keyBytes.clone();
+        return keySpecs.get(ByteBuffer.wrap(ownedKey), k -> new SecretKeySpec(Arrays.copyOf(ownedKey, 32), "AES"));
+    }
+
     public byte[] deriveKey(String secret) throws Exception {
         MessageDigest sha = MessageDigest.getInstance("SHA-256");
         return sha.digest(secret.getBytes(StandardCharsets.UTF_8));
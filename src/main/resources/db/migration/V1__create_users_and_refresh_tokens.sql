@@ -1,15 +1,3 @@
--- Migrations for existing tables
-ALTER TABLE users ADD COLUMN IF NOT EXISTS avatar_url VARCHAR(255);
-ALTER TABLE users ADD COLUMN IF NOT EXISTS roles TEXT[];
-ALTER TABLE users ADD COLUMN IF NOT EXISTS ip_address VARCHAR(45);
-ALTER TABLE users ADD COLUMN IF NOT EXISTS city VARCHAR(100);
-ALTER TABLE users ADD COLUMN IF NOT EXISTS country VARCHAR(100);
-ALTER TABLE users ADD COLUMN IF NOT EXISTS device_data TEXT;
-ALTER TABLE users ADD COLUMN IF NOT EXISTS profile_type VARCHAR(50);
-ALTER TABLE users ADD COLUMN IF NOT EXISTS verified BOOLEAN DEFAULT FALSE;
-ALTER TABLE users ADD COLUMN IF NOT EXISTS created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
-ALTER TABLE users ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
-
 CREATE TABLE IF NOT EXISTS users (
     id SERIAL,
     email VARCHAR(255) NOT NULL,